@@ -0,0 +1,143 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.filter.EOperator;
+import org.opentdk.api.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading, writing and filtering of a {@link TabularContainer}. The data has the columns ID, Name, Age,
+ * Country and Date with random values like the file of the <code>CSVFileGenerator</code>. All threads filter and
+ * write the same container, each thread reads and writes its own file.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=TabularContainerBenchmark -Djmh.threads=4
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TabularContainerBenchmark {
+
+	private static final String[] NAMES = { "John", "Jane", "Alex", "Alice", "Bob", "Carol", "Dave", "Eve" };
+	private static final String[] COUNTRIES = { "USA", "Canada", "UK", "Germany", "France", "Italy", "Spain", "Australia" };
+
+	/**
+	 * The container and its file, shared by all threads.
+	 */
+	@State(Scope.Benchmark)
+	public static class Data {
+
+		@Param({ "1000", "100000" })
+		public int rows;
+
+		public Path dir;
+		public Path file;
+		public TabularContainer container;
+
+		@Setup(Level.Trial)
+		public void createData() throws IOException {
+			Random random = new Random(42);
+			LocalDate firstDate = LocalDate.of(2024, 1, 1);
+			container = TabularContainer.newInstance();
+			container.initHeaders(new String[] { "ID", "Name", "Age", "Country", "Date" });
+			for (int i = 0; i < rows; i++) {
+				container.addRow(new String[] { String.valueOf(i), NAMES[random.nextInt(NAMES.length)], String.valueOf(random.nextInt(100)),
+						COUNTRIES[random.nextInt(COUNTRIES.length)], firstDate.plusDays(random.nextInt(366)).toString() });
+			}
+			container.declareColumnType("Date", EColumnType.DATE);
+			dir = Files.createTempDirectory("tabular-benchmark");
+			file = dir.resolve("data.csv");
+			container.writeData(file);
+		}
+
+		@TearDown(Level.Trial)
+		public void deleteData() throws IOException {
+			try (var files = Files.list(dir)) {
+				for (Path path : files.toList()) {
+					Files.deleteIfExists(path);
+				}
+			}
+			Files.deleteIfExists(dir);
+		}
+	}
+
+	/**
+	 * The output file of a thread.
+	 */
+	@State(Scope.Thread)
+	public static class Output {
+
+		public Path file;
+
+		@Setup(Level.Trial)
+		public void createFile(Data data) {
+			file = data.dir.resolve("out-" + Thread.currentThread().getId() + ".csv");
+		}
+	}
+
+	/**
+	 * A filter of the kind given by the parameter.
+	 */
+	@State(Scope.Benchmark)
+	public static class Filters {
+
+		@Param({ "EQUALS", "NUMERIC", "DATE", "CONTAINS", "IN", "COMBINED" })
+		public String kind;
+
+		public Filter filter;
+
+		@Setup(Level.Trial)
+		public void createFilter() {
+			filter = new Filter();
+			switch (kind) {
+				case "EQUALS" -> filter.addFilterRule("Country", "Germany", EOperator.EQUALS);
+				case "NUMERIC" -> filter.addFilterRule("Age", "50", EOperator.GREATER_THAN);
+				case "DATE" -> filter.addFilterRule("Date", "2024-07-01", EOperator.DATE_AFTER);
+				case "CONTAINS" -> filter.addFilterRule("Name", "li", EOperator.CONTAINS);
+				case "IN" -> filter.addFilterRule("Country", new String[] { "Germany", "France", "Italy" }, EOperator.IN);
+				case "COMBINED" -> {
+					filter.addFilterRule("Country", "Germany", EOperator.EQUALS);
+					filter.addFilterRule("Age", "30", EOperator.LESS_THAN);
+				}
+				default -> throw new IllegalArgumentException("Unknown filter " + kind);
+			}
+		}
+	}
+
+	@Benchmark
+	public TabularContainer readData(Data data) throws IOException {
+		TabularContainer container = TabularContainer.newInstance();
+		container.readData(data.file);
+		return container;
+	}
+
+	@Benchmark
+	public void writeData(Data data, Output output) throws IOException {
+		data.container.writeData(output.file);
+	}
+
+	@Benchmark
+	public int[] getRowsIndexes(Data data, Filters filters) {
+		return data.container.getRowsIndexes(filters.filter);
+	}
+}
@@ -0,0 +1,101 @@
+package org.opentdk.api.datastorage;
+
+import org.json.JSONObject;
+import org.opentdk.api.filter.EOperator;
+import org.opentdk.api.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the facade methods {@link DataContainer#get(String)} and {@link DataContainer#set(String, String)} of
+ * JSON and YAML containers with the given number of keys. The keys are on the top level and in the objects of a
+ * <code>groups</code> object, which get read by an XPath filter. The containers are not thread-safe, so each thread
+ * reads its own container from the file.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=TreeContainerBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeContainerBenchmark {
+
+	@Param({ "JSON", "YAML" })
+	public EContainerFormat format;
+
+	@Param({ "100", "10000" })
+	public int keys;
+
+	private Path file;
+	private DataContainer container;
+	private String[] names;
+	private Filter[] groupFilters;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createContainer() throws IOException {
+		JSONObject content = new JSONObject();
+		JSONObject groups = new JSONObject();
+		for (int i = 0; i < keys; i++) {
+			content.put("key" + i, "value" + i);
+			groups.put("group" + i, new JSONObject().put("name", "Group " + i).put("size", i));
+		}
+		content.put("groups", groups);
+		String extension = format == EContainerFormat.JSON ? ".json" : ".yaml";
+		file = Files.createTempFile("tree-benchmark", extension);
+		Files.writeString(file, format == EContainerFormat.JSON ? content.toString(1) : new Yaml().dumpAsMap(content.toMap()));
+		container = DataContainer.newContainer(file);
+
+		names = new String[64];
+		groupFilters = new Filter[names.length];
+		for (int i = 0; i < names.length; i++) {
+			int key = (int) ((long) i * keys / names.length);
+			names[i] = "key" + key;
+			groupFilters[i] = new Filter();
+			groupFilters[i].addFilterRule("XPath", "groups;group" + key, EOperator.EQUALS);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public String[] get() {
+		index = (index + 1) % names.length;
+		return container.get(names[index]);
+	}
+
+	@Benchmark
+	public String[] getByXPath() {
+		index = (index + 1) % names.length;
+		return container.get("name", groupFilters[index]);
+	}
+
+	@Benchmark
+	public void set() {
+		index = (index + 1) % names.length;
+		container.set(names[index], "changed" + index);
+	}
+}
@@ -0,0 +1,71 @@
+package org.opentdk.api.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FilterRule#isValidValue(String, String)} per operator. Each operator checks a mix of matching
+ * and not matching values of the kind it compares: names, numbers, dates or texts with a date.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=FilterRuleBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterRuleBenchmark {
+
+	@Param({ "EQUALS", "EQUALS_IGNORE_CASE", "NOT_EQUALS", "CONTAINS", "CONTAINS_IGNORE_CASE", "STARTS_WITH", "ENDS_WITH",
+			"GREATER_THAN", "LESS_OR_EQUAL_THAN", "DATE_AFTER", "DATE_EQUALS", "CONTAINS_DATE" })
+	public EOperator operator;
+
+	private FilterRule rule;
+	private String filterValue;
+	private String[] values;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createRule() {
+		switch (operator) {
+			case GREATER_THAN, LESS_OR_EQUAL_THAN -> {
+				filterValue = "50";
+				values = new String[] { "42", "17.5", "100", "-3", "50", "99.99", "7", "63" };
+			}
+			case DATE_AFTER, DATE_EQUALS -> {
+				filterValue = "2024-05-01";
+				values = new String[] { "2024-05-01", "2023-12-31", "2024-07-15", "2024-01-02", "2025-03-09", "2024-05-02", "2022-11-30", "2024-04-30" };
+			}
+			case CONTAINS_DATE -> {
+				filterValue = "2024-05-01";
+				values = new String[] { "Backup finished at 2024-05-01 08:00:00 on host01", "Backup finished at 2024-05-02 08:00:00 on host02",
+						"Report of 2024-05-01", "No date in this line" };
+			}
+			default -> {
+				filterValue = "Ali";
+				values = new String[] { "Alice", "alice", "Bob", "Alexander", "Natali", "Ali", "Carol", "Dave" };
+			}
+		}
+		rule = new FilterRule("Column", filterValue, operator);
+	}
+
+	@Benchmark
+	public boolean isValidValue() {
+		index = (index + 1) % values.length;
+		return rule.isValidValue(values[index], filterValue);
+	}
+}
@@ -0,0 +1,89 @@
+package org.opentdk.api.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding elements, saving and XPath lookups of an {@link XMLEditor} with the given number of
+ * <code>entry</code> elements. The DOM is not thread-safe, so each thread works on its own editor and file.
+ * Auto save is disabled, so adding only changes the document in memory.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=XMLEditorBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XMLEditorBenchmark {
+
+	@Param({ "100", "10000" })
+	public int elements;
+
+	private XMLEditor editor;
+	private File file;
+	private String[] expressions;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createDocument() throws Exception {
+		editor = new XMLEditor("rootTag");
+		editor.setAutoSave(false);
+		Element entries = editor.checkXPath("/rootTag/entries", true);
+		editor.checkXPath("/rootTag/added", true);
+		for (int i = 0; i < elements; i++) {
+			Element entry = editor.createElement("entry", "id", String.valueOf(i));
+			entry.setTextContent("value" + i);
+			entries.appendChild(entry);
+		}
+		file = Files.createTempFile("xml-benchmark", ".xml").toFile();
+		expressions = new String[64];
+		for (int i = 0; i < expressions.length; i++) {
+			expressions[i] = "/rootTag/entries/entry[@id='" + (long) i * elements / expressions.length + "']";
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFile() throws Exception {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	/**
+	 * Adds an element by its XPath and removes it again, so the document keeps its size.
+	 */
+	@Benchmark
+	public Element addElement() throws Exception {
+		Element added = editor.addElement("/rootTag/added", "item", "value", "name", "benchmark");
+		added.getParentNode().removeChild(added);
+		return added;
+	}
+
+	@Benchmark
+	public void save() throws Exception {
+		editor.save(file);
+	}
+
+	@Benchmark
+	public String getText() throws Exception {
+		index = (index + 1) % expressions.length;
+		return editor.getText(expressions[index]);
+	}
+}
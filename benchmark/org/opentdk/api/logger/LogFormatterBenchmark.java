@@ -0,0 +1,71 @@
+package org.opentdk.api.logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogRecord;
+
+/**
+ * Compares the {@link LogFormatter} and the {@link JsonLogFormatter} with the format string that the
+ * {@link LogFormatter} replaced. The records are spread over 20 seconds
+ * like 50 records per second in a log file.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=LogFormatterBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogFormatterBenchmark {
+
+	private final LogFormatter formatter = new LogFormatter();
+	private final JsonLogFormatter jsonFormatter = new JsonLogFormatter();
+	private LogRecord[] records;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createRecords() {
+		long start = System.currentTimeMillis();
+		records = new LogRecord[1000];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = new LogRecord(i % 10 == 0 ? java.util.logging.Level.WARNING : java.util.logging.Level.INFO, "Processed request " + i + " in 12 ms");
+			records[i].setLoggerName("logs/application.log");
+			records[i].setInstant(Instant.ofEpochMilli(start + i * 20L));
+		}
+	}
+
+	private LogRecord next() {
+		index = (index + 1) % records.length;
+		return records[index];
+	}
+
+	@Benchmark
+	public String formatString() {
+		LogRecord logRecord = next();
+		return String.format("[%1$tF %1$tT] [%2$s] %3$s: %4$s%n", logRecord.getMillis(), logRecord.getLevel().getName(), logRecord.getLoggerName(), logRecord.getMessage());
+	}
+
+	@Benchmark
+	public String logFormatter() {
+		return formatter.format(next());
+	}
+
+	@Benchmark
+	public String jsonLogFormatter() {
+		return jsonFormatter.format(next());
+	}
+}
@@ -0,0 +1,66 @@
+package org.opentdk.api.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DateUtil#compare(String, String)} and {@link DateUtil#findDate(String)} for dates of the given
+ * format. The dates of the format get found in a log line for {@link DateUtil#findDate(String)}.
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.include=DateUtilBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+
+	@Param({ "yyyy-MM-dd", "dd.MM.yyyy HH:mm:ss", "yyyyMMdd-HHmmss", "dd.MM.yyyy HH:mm:ss.SSS" })
+	public String format;
+
+	private String[] dates;
+	private String[] lines;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void createDates() {
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+		LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 30, 15, 123_000_000);
+		dates = new String[64];
+		lines = new String[dates.length];
+		for (int i = 0; i < dates.length; i++) {
+			dates[i] = formatter.format(start.plusHours(i * 37L));
+			lines[i] = "INFO Backup of host" + i + " finished at " + dates[i] + " after 42 s";
+		}
+	}
+
+	@Benchmark
+	public int compare() {
+		index = (index + 1) % dates.length;
+		return DateUtil.compare(dates[index], dates[(index + 7) % dates.length]);
+	}
+
+	@Benchmark
+	public Optional<String> findDate() {
+		index = (index + 1) % lines.length;
+		return DateUtil.findDate(lines[index]);
+	}
+}
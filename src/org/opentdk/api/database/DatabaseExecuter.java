@@ -16,6 +16,8 @@ import java.util.List;
 
 import org.opentdk.api.datastorage.DataContainer;
 import org.opentdk.api.datastorage.EContainerFormat;
+import org.opentdk.api.metrics.LatencyHistogram;
+import org.opentdk.api.metrics.MetricsRegistry;
 
 
 /**
@@ -31,6 +33,12 @@ import org.opentdk.api.datastorage.EContainerFormat;
  */
 public final class DatabaseExecuter {
 
+	/**
+	 * Duration of the statement executions, without fetching the results. Recorded as <code>db.query.latency</code>
+	 * in the {@link MetricsRegistry#getDefault() default registry}.
+	 */
+	private static final LatencyHistogram QUERY_LATENCY = MetricsRegistry.getDefault().histogram("db.query.latency");
+
 	/**
 	 * Return value of the {@link java.sql.DriverManager} <code>getConnection</code>
 	 * method that is used when connecting to a database with user, password and
@@ -61,7 +69,9 @@ public final class DatabaseExecuter {
 	public boolean executeSelect(String sqlString) throws SQLException {
 		boolean retVal = false;		
 		try(PreparedStatement prepStatement = con.prepareStatement(sqlString, PreparedStatement.RETURN_GENERATED_KEYS)) {
+			long start = System.nanoTime();
 			ResultSet result = prepStatement.executeQuery();
+			QUERY_LATENCY.recordSince(start);
 			if (result.next()) {
 				retVal = true;
 			}
@@ -78,7 +88,9 @@ public final class DatabaseExecuter {
 	public boolean executeInsert(String sqlString) throws SQLException {
 		boolean retVal = false;
 		try(PreparedStatement prepStatement = con.prepareStatement(sqlString, PreparedStatement.RETURN_GENERATED_KEYS)) {
+			long start = System.nanoTime();
 			int result = prepStatement.executeUpdate();
+			QUERY_LATENCY.recordSince(start);
 			if (result == 1) {
 				retVal = true;
 			}
@@ -94,7 +106,9 @@ public final class DatabaseExecuter {
 	 */
 	public boolean execute(String sqlString) {
 		try(PreparedStatement prepStatement = con.prepareStatement(sqlString, PreparedStatement.RETURN_GENERATED_KEYS)) {
+			long start = System.nanoTime();
 			prepStatement.execute();
+			QUERY_LATENCY.recordSince(start);
 			return true;
 		} catch (SQLException e) {
 			return false;
@@ -111,7 +125,9 @@ public final class DatabaseExecuter {
 		DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
 		ResultSet result = null;
 		try(PreparedStatement prepStatement = con.prepareStatement(sqlString, PreparedStatement.RETURN_GENERATED_KEYS)) {
+			long start = System.nanoTime();
 			result = prepStatement.executeQuery();
+			QUERY_LATENCY.recordSince(start);
 			ResultSetMetaData rsmd = result.getMetaData();
 
 			int cols = rsmd.getColumnCount();
@@ -146,7 +162,9 @@ public final class DatabaseExecuter {
 		Deque<String[]> ret = new ArrayDeque<>();
 		ResultSet result = null;
 		try(PreparedStatement prepStatement = con.prepareStatement(sqlString, PreparedStatement.RETURN_GENERATED_KEYS)) {
+			long start = System.nanoTime();
 			result = prepStatement.executeQuery();
+			QUERY_LATENCY.recordSince(start);
 			ResultSetMetaData rsmd = result.getMetaData();
 
 			int cols = rsmd.getColumnCount();
@@ -184,7 +202,9 @@ public final class DatabaseExecuter {
 		ResultSet result = null;
 		try(PreparedStatement prepStatement = con.prepareStatement(sqlString, PreparedStatement.RETURN_GENERATED_KEYS)) {			
 			// Execute
+			long start = System.nanoTime();
 			result = prepStatement.executeQuery();
+			QUERY_LATENCY.recordSince(start);
 			// Fetch
 			ResultSetMetaData rsmd = result.getMetaData();
 			
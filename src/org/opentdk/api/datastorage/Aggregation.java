@@ -0,0 +1,126 @@
+package org.opentdk.api.datastorage;
+
+import lombok.Getter;
+
+/**
+ * Defines one aggregated column of a group-by: the aggregate function, the column with the values and the header
+ * of the result column. Instances are immutable.
+ *
+ * <pre>
+ * TabularContainer summary = results.groupBy(new String[] { "Date", "Transaction" },
+ *         Aggregation.count().as("Runs"), Aggregation.avg("Duration"), Aggregation.percentile("Duration", 90));
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+@Getter
+public class Aggregation {
+
+    /**
+     * The aggregate function.
+     */
+    private final EAggregate function;
+
+    /**
+     * The header of the column with the values or null to count the rows.
+     */
+    private final String column;
+
+    /**
+     * The percentile between 0 and 100 for {@link EAggregate#PERCENTILE}.
+     */
+    private final double percentile;
+
+    /**
+     * The header of the result column.
+     */
+    private final String header;
+
+    private Aggregation(EAggregate function, String column, double percentile, String header) {
+        this.function = function;
+        this.column = column;
+        this.percentile = percentile;
+        this.header = header;
+    }
+
+    private static Aggregation of(EAggregate function, String column) {
+        return new Aggregation(function, column, 0, function.name().toLowerCase() + "(" + column + ")");
+    }
+
+    /**
+     * @return an aggregation that counts the rows of each group, with the header <code>count</code>
+     */
+    public static Aggregation count() {
+        return new Aggregation(EAggregate.COUNT, null, 0, "count");
+    }
+
+    /**
+     * @param column the header of the column, not case-sensitive
+     * @return an aggregation that counts the non-empty values of a column
+     */
+    public static Aggregation count(String column) {
+        return of(EAggregate.COUNT, column);
+    }
+
+    /**
+     * @param column the header of the column, not case-sensitive
+     * @return an aggregation that sums up the numeric values of a column
+     */
+    public static Aggregation sum(String column) {
+        return of(EAggregate.SUM, column);
+    }
+
+    /**
+     * @param column the header of the column, not case-sensitive
+     * @return an aggregation that calculates the mean of the numeric values of a column
+     */
+    public static Aggregation avg(String column) {
+        return of(EAggregate.AVG, column);
+    }
+
+    /**
+     * @param column the header of the column, not case-sensitive
+     * @return an aggregation that finds the smallest numeric value of a column
+     */
+    public static Aggregation min(String column) {
+        return of(EAggregate.MIN, column);
+    }
+
+    /**
+     * @param column the header of the column, not case-sensitive
+     * @return an aggregation that finds the largest numeric value of a column
+     */
+    public static Aggregation max(String column) {
+        return of(EAggregate.MAX, column);
+    }
+
+    /**
+     * @param column the header of the column, not case-sensitive
+     * @return an aggregation that counts the different non-empty values of a column
+     */
+    public static Aggregation distinctCount(String column) {
+        return of(EAggregate.DISTINCT_COUNT, column);
+    }
+
+    /**
+     * @param column     the header of the column, not case-sensitive
+     * @param percentile the percentile between 0 (exclusive) and 100
+     * @return an aggregation that estimates a percentile of the numeric values of a column, like
+     *         {@link org.opentdk.api.util.MathUtil#getPercentile(double[], double)}
+     */
+    public static Aggregation percentile(String column, double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile has to be between 0 and 100");
+        }
+        String name = percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+        return new Aggregation(EAggregate.PERCENTILE, column, percentile, "p" + name + "(" + column + ")");
+    }
+
+    /**
+     * @param header the header of the result column
+     * @return a copy of this aggregation with another header
+     */
+    public Aggregation as(String header) {
+        return new Aggregation(function, column, percentile, header);
+    }
+}
@@ -0,0 +1,140 @@
+package org.opentdk.api.datastorage;
+
+import lombok.Getter;
+import org.apache.commons.math3.stat.StatUtils;
+import org.opentdk.api.util.MathUtil;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates statistics of numeric values without boxing them. Count, sum, minimum and maximum are
+ * updated with every value. The values themselves are kept in a growable primitive array for the
+ * percentile and the standard deviation. Instances are not thread-safe, but partial results of
+ * several threads can be combined with {@link #merge(ColumnStats)}.
+ *
+ * <pre>
+ * Map{@literal <String, ColumnStats>} stats = container.tabInstance().aggregate("Transaction", "ResponseTime");
+ * double p90 = stats.get("Login").getPercentile(90);
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class ColumnStats {
+
+    /**
+     * Number of added values.
+     */
+    @Getter
+    private int count;
+
+    /**
+     * Sum of all added values.
+     */
+    @Getter
+    private double sum;
+
+    /**
+     * Smallest added value or NaN if no value was added.
+     */
+    @Getter
+    private double min = Double.NaN;
+
+    /**
+     * Largest added value or NaN if no value was added.
+     */
+    @Getter
+    private double max = Double.NaN;
+
+    /**
+     * The added values. Only the first {@link #count} elements are used.
+     */
+    private double[] values;
+
+    /**
+     * Creates an empty instance.
+     */
+    public ColumnStats() {
+        values = new double[16];
+    }
+
+    /**
+     * Creates an instance with the given values.
+     *
+     * @param values the values to add, e.g. from {@link TabularContainer#getColumnAsDoubles(String)}.
+     *               Values that are NaN get ignored.
+     */
+    public ColumnStats(double[] values) {
+        this.values = new double[Math.max(values.length, 16)];
+        for (double value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * Adds a value to the statistics.
+     *
+     * @param value the value to add. NaN gets ignored, so missing values can be passed directly.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = value;
+        sum += value;
+        if (!(value >= min)) {
+            min = value;
+        }
+        if (!(value <= max)) {
+            max = value;
+        }
+    }
+
+    /**
+     * Adds all values of another instance to this one.
+     *
+     * @param other the statistics to merge into this instance
+     */
+    public void merge(ColumnStats other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.values[i]);
+        }
+    }
+
+    /**
+     * @return the arithmetic mean of the values or NaN if no value was added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @param p the percentile value to compute, a value between 0 and 100
+     * @return an estimate of the percentile of the values like {@link MathUtil#getPercentile(double[], double)}
+     *         or NaN if no value was added
+     */
+    public double getPercentile(double p) {
+        return StatUtils.percentile(values, 0, count, p);
+    }
+
+    /**
+     * @return the bias corrected sample standard deviation of the values
+     */
+    public double getStandardDeviation() {
+        return MathUtil.getStandardDeviation(toArray());
+    }
+
+    /**
+     * @return a copy of the added values
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(values, count);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + ", mean=" + getMean();
+    }
+}
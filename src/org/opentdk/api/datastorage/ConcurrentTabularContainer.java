@@ -0,0 +1,207 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.filter.Filter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe variant of the {@link TabularContainer}. Any number of threads can append rows while
+ * others read or filter the data:
+ * <ul>
+ * <li>Readers never lock. Iterations, filters and streams work on a snapshot of the rows that was
+ * current when they started.</li>
+ * <li>Appends take a short lock and write into free slots of the row storage, so they do not copy
+ * existing rows.</li>
+ * <li>Updates, deletes and column changes copy the affected rows before they get published
+ * (copy-on-write) and are serialized with the appends.</li>
+ * </ul>
+ * Arrays returned by the getters must not be modified by the caller, since they are shared with
+ * concurrent readers.
+ *
+ * <pre>
+ * DataContainer dc = DataContainer.newConcurrentContainer(EContainerFormat.CSV);
+ * dc.tabInstance().initHeaders(new String[] { "Time", "Value" });
+ * // Any thread
+ * dc.tabInstance().addRow(new String[] { "10:00", "42" });
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class ConcurrentTabularContainer extends TabularContainer {
+
+    /**
+     * The thread-safe row storage that was passed to the super class.
+     */
+    private final SegmentedRowList rowList;
+
+    /**
+     * Creates a new instance of the ConcurrentTabularContainer.
+     *
+     * @return a new ConcurrentTabularContainer instance.
+     */
+    public static ConcurrentTabularContainer newInstance() {
+        return new ConcurrentTabularContainer(new SegmentedRowList());
+    }
+
+    private ConcurrentTabularContainer(SegmentedRowList rowList) {
+        super(rowList, new ConcurrentHashMap<>());
+        this.rowList = rowList;
+    }
+
+    /**
+     * The row list instance stays the same, so references obtained by {@link #getRows()} remain valid.
+     */
+    @Override
+    protected void replaceRows(List<String[]> content) {
+        rowList.reset(content);
+    }
+
+    /**
+     * Replaces the row instead of changing the array, because readers might still use the old values.
+     */
+    @Override
+    protected void storeRow(int rowIndex, String[] values) {
+        rowList.set(rowIndex, values);
+    }
+
+    @Override
+    public void readData(Path sourceFile) throws IOException {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.readData(sourceFile);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void readData(InputStream stream) throws IOException {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.readData(stream);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addColumn(String column, boolean useExisting) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.addColumn(column, useExisting);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setValue(String updateColumn, String oldValue, String newValue) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.setValue(updateColumn, oldValue, newValue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sort(String... columns) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.sort(columns);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sortDescending(String... columns) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.sortDescending(columns);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void convertDateColumn(String columnHeader, String outFormat, boolean parallel) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.convertDateColumn(columnHeader, outFormat, parallel);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setRow(String[] updateRow, Filter filter) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.setRow(updateRow, filter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks the length of the row and replaces it under the lock, so a concurrent delete cannot move another
+     * row to the index in between.
+     */
+    @Override
+    public void setRow(int index, String[] updateRow) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.setRow(index, updateRow);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteRow(int index) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.deleteRow(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteRows(Filter filter) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.deleteRows(filter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void initHeaders(String[] headers) {
+        ReentrantLock lock = rowList.getWriteLock();
+        lock.lock();
+        try {
+            super.initHeaders(headers);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
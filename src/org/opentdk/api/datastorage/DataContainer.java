@@ -20,6 +20,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -28,6 +31,10 @@ import java.util.stream.Stream;
  * data formats including CSV, XML, JSON, and YAML. It acts as a data structure primarily for
  * interacting with data from various sources like files, streams, or external inputs. The class
  * offers factory methods for creation and utility methods for data processing and manipulation.
+ * <p>
+ * Containers created by {@link #newConcurrentContainer(EContainerFormat)} or {@link #newConcurrentContainer(Path)}
+ * can be shared between threads. Tabular data gets stored in a {@link ConcurrentTabularContainer}, tree formats
+ * get guarded by a read-write lock for all facade methods.
  */
 public class DataContainer implements SpecificContainer {
 
@@ -37,7 +44,7 @@ public class DataContainer implements SpecificContainer {
      * specific container type. This instance is used to delegate operations related to reading,
      * writing, and data manipulation to the appropriate container implementation.
      */
-    private SpecificContainer instance;
+    private volatile SpecificContainer instance;
 
     /**
      * Represents the file path of the input data source. This variable holds a {@link Path} object
@@ -68,12 +75,22 @@ public class DataContainer implements SpecificContainer {
      * scenarios where selective data retrieval, modification, or deletion is required.
      * <p>
      * This field is initialized with a new instance of the Filter class and is accessible or
-     * modifiable through the provided getter and setter methods.
+     * modifiable through the provided getter and setter methods. Concurrent containers keep one
+     * filter per thread in {@link #threadFilter} instead.
      */
-    @Getter
-    @Setter
     private Filter filter = new Filter();
 
+    /**
+     * The filter of each thread that uses a concurrent container, otherwise null.
+     */
+    private ThreadLocal<Filter> threadFilter;
+
+    /**
+     * Guards the tree formats of a concurrent container, otherwise null. Reading the XML document
+     * requires the write lock, because the DOM implementation is not thread-safe even for reads.
+     */
+    private ReentrantReadWriteLock lock;
+
     /**
      * Represents the format of the container used for data handling. The {@code containerFormat}
      * field is of type {@link EContainerFormat}, which enumerates supported data storage formats
@@ -83,6 +100,11 @@ public class DataContainer implements SpecificContainer {
     @Getter
     private EContainerFormat containerFormat;
 
+    /**
+     * Counts the changes of the data. See {@link #getVersion()}.
+     */
+    private final AtomicLong version = new AtomicLong();
+
     /**
      * Creates and returns a new instance of the {@code DataContainer} class with default settings.
      *
@@ -168,9 +190,35 @@ public class DataContainer implements SpecificContainer {
      *             provided, an IllegalStateException is thrown.
      */
     private DataContainer(EContainerFormat type) {
+        this(type, false);
+    }
+
+    /**
+     * Creates a new thread-safe instance of DataContainer with the specified container format.
+     * Any number of threads can read and modify the container at the same time.
+     *
+     * @param type the container format type to initialize the DataContainer with
+     * @return a new thread-safe instance of DataContainer initialized with the specified format type.
+     */
+    public static DataContainer newConcurrentContainer(EContainerFormat type) {
+        return new DataContainer(type, true);
+    }
+
+    /**
+     * Like {@link #newContainer(Path)} but creates a thread-safe instance that can be shared between threads.
+     *
+     * @param sourceFile the path to the source file from which the DataContainer will be created
+     * @return a new thread-safe DataContainer instance associated with the provided source
+     */
+    public static DataContainer newConcurrentContainer(Path sourceFile) {
+        return new DataContainer(sourceFile, true);
+    }
+
+    private DataContainer(EContainerFormat type, boolean concurrent) {
         containerFormat = type;
+        initConcurrency(concurrent);
         switch (type) {
-            case CSV -> instance = TabularContainer.newInstance();
+            case CSV -> instance = concurrent ? ConcurrentTabularContainer.newInstance() : TabularContainer.newInstance();
             case XML -> {
                 try {
                     instance = XMLDataContainer.newInstance();
@@ -214,7 +262,12 @@ public class DataContainer implements SpecificContainer {
      * @throws DataContainerException if an IOException occurs while accessing or processing the file
      */
     private DataContainer(Path sourceFile) {
+        this(sourceFile, false);
+    }
+
+    private DataContainer(Path sourceFile, boolean concurrent) {
         inputFile = sourceFile;
+        initConcurrency(concurrent);
         try {
             instance = adaptContainer();
             if (Files.exists(sourceFile) && Files.isRegularFile(sourceFile) && Files.size(sourceFile) > 0) {
@@ -267,7 +320,7 @@ public class DataContainer implements SpecificContainer {
      */
     private SpecificContainer adaptContainer() throws IOException {
         return switch (detectDataFormat()) {
-            case CSV -> TabularContainer.newInstance();
+            case CSV -> lock != null ? ConcurrentTabularContainer.newInstance() : TabularContainer.newInstance();
             case XML -> {
                 try {
                     yield XMLDataContainer.newInstance();
@@ -280,6 +333,131 @@ public class DataContainer implements SpecificContainer {
         };
     }
 
+    /**
+     * Creates the objects that make the container thread-safe.
+     *
+     * @param concurrent true if the container gets shared between threads
+     */
+    private void initConcurrency(boolean concurrent) {
+        if (concurrent) {
+            lock = new ReentrantReadWriteLock();
+            threadFilter = ThreadLocal.withInitial(Filter::new);
+        }
+    }
+
+    /**
+     * Acquires the lock that guards the tree formats of a concurrent container. Tabular containers
+     * are thread-safe by themselves and do not get locked.
+     *
+     * @param write true if the operation modifies the data
+     * @return the acquired lock or null if no lock is required
+     */
+    private Lock acquire(boolean write) {
+        if (lock == null || isTabular()) {
+            return null;
+        }
+        Lock ret = write || isXML() ? lock.writeLock() : lock.readLock();
+        ret.lock();
+        return ret;
+    }
+
+    /**
+     * @param acquired the lock returned by {@link #acquire(boolean)}
+     */
+    private static void release(Lock acquired) {
+        if (acquired != null) {
+            acquired.unlock();
+        }
+    }
+
+    /**
+     * Returns the version of the data, which increases with every change by {@link #readData(Path)},
+     * {@link #readData(InputStream)}, {@link #add(String, String, Filter)}, {@link #delete(String, String, String, Filter)},
+     * {@link #set(String, String, Filter, boolean)} and {@link #setAttribute(String, String, String, String, Filter)}.
+     * Readers can cache values as long as the version stays the same. Changes of the specific instance that bypass
+     * these methods have to be announced by {@link #markModified()}.
+     *
+     * @return the current version of the data
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Increases the version of the data after changes that were made directly on the specific instance, e.g. by
+     * {@link #xmlInstance()}, so values cached by readers get refreshed.
+     */
+    public void markModified() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Replaces the data of this container by the data of another container in one step, e.g. after the source
+     * file was changed and read into a new container. Readers see either the old or the new data, and the
+     * version increases. The replacement gets skipped if this container was changed since the given version, so
+     * changes that are not contained in the new data do not get lost.
+     *
+     * @param source          the container with the new data in the same format. It must not be used afterward.
+     * @param expectedVersion the version of this container when the new data was read, see {@link #getVersion()},
+     *                        or -1 to replace the data in any case
+     * @return true if the data got replaced, false if this container was changed in the meantime
+     * @throws IllegalArgumentException if the source container has another format
+     */
+    public boolean replaceContent(DataContainer source, long expectedVersion) {
+        if (source.instance == null || instance == null || source.instance.getClass() != instance.getClass()) {
+            throw new IllegalArgumentException("Content can only be replaced by a container of the same format");
+        }
+        Lock acquired = acquire(true);
+        try {
+            if (expectedVersion != -1 && version.get() != expectedVersion) {
+                return false;
+            }
+            instance = source.instance;
+            version.incrementAndGet();
+            return true;
+        } finally {
+            release(acquired);
+        }
+    }
+
+    /**
+     * Checks if a file is still the way this container saved it. XML containers that were read from a file save
+     * each change, see {@link #update(Runnable)}, so a {@link org.opentdk.api.dispatcher.SettingsReloader} can skip
+     * the reload of the own changes. Other formats only write the file by {@link #writeData(Path)}.
+     *
+     * @param file the file to check
+     * @return true if the container saved the file and it did not change since then, false otherwise
+     */
+    public boolean isUnchangedSinceSave(Path file) {
+        SpecificContainer current = instance;
+        return current instanceof XMLDataContainer xml && xml.isUnchangedSinceSave(file);
+    }
+
+    /**
+     * @return true if the container was created to be shared between threads
+     */
+    public boolean isConcurrent() {
+        return lock != null;
+    }
+
+    /**
+     * @return the filter of the container or of the calling thread in case of a concurrent container
+     */
+    public Filter getFilter() {
+        return threadFilter != null ? threadFilter.get() : filter;
+    }
+
+    /**
+     * @param filter the filter of the container or of the calling thread in case of a concurrent container
+     */
+    public void setFilter(Filter filter) {
+        if (threadFilter != null) {
+            threadFilter.set(filter);
+        } else {
+            this.filter = filter;
+        }
+    }
+
     /**
      * Detects the data format of an input source, which can either be an input stream or an input file.
      * The method analyzes the content of the input stream or the file extension to determine the data format.
@@ -516,7 +694,12 @@ public class DataContainer implements SpecificContainer {
      */
     @Override
     public String asString() {
-        return instance.asString();
+        Lock acquired = acquire(false);
+        try {
+            return instance.asString();
+        } finally {
+            release(acquired);
+        }
     }
 
     /**
@@ -528,7 +711,12 @@ public class DataContainer implements SpecificContainer {
      */
     @Override
     public String asString(EContainerFormat format) {
-        return instance.asString(format);
+        Lock acquired = acquire(false);
+        try {
+            return instance.asString(format);
+        } finally {
+            release(acquired);
+        }
     }
 
     /**
@@ -539,7 +727,13 @@ public class DataContainer implements SpecificContainer {
      */
     @Override
     public void readData(Path inputFile) throws IOException {
-        instance.readData(inputFile);
+        Lock acquired = acquire(true);
+        try {
+            instance.readData(inputFile);
+        } finally {
+            version.incrementAndGet();
+            release(acquired);
+        }
     }
 
     /**
@@ -550,7 +744,46 @@ public class DataContainer implements SpecificContainer {
      */
     @Override
     public void readData(InputStream stream) throws IOException {
-        instance.readData(stream);
+        Lock acquired = acquire(true);
+        try {
+            instance.readData(stream);
+        } finally {
+            version.incrementAndGet();
+            release(acquired);
+        }
+    }
+
+    /**
+     * Applies several changes at once. XML containers that were read from a file save the whole file after each
+     * change. Within the update, the changes only get applied in memory and the file gets saved once afterward by
+     * replacing it with a temporary file, so the file never contains a part of the changes. Concurrent containers
+     * hold the write lock during the update, so other threads see either none or all of the changes. If the changes
+     * throw an exception, the changes applied before stay in memory, but the file does not get saved.
+     *
+     * @param changes calls the facade methods, e.g. {@link #set(String, String, Filter)}
+     */
+    public void update(Runnable changes) {
+        checkInstance();
+        Lock acquired = acquire(true);
+        try {
+            if (isTree() && isXML()) {
+                XMLDataContainer xml = xmlInstance();
+                boolean autoSave = xml.isAutoSave();
+                xml.setAutoSave(false);
+                try {
+                    changes.run();
+                } finally {
+                    xml.setAutoSave(autoSave);
+                }
+                if (autoSave) {
+                    xml.save();
+                }
+            } else {
+                changes.run();
+            }
+        } finally {
+            release(acquired);
+        }
     }
 
     /**
@@ -560,7 +793,12 @@ public class DataContainer implements SpecificContainer {
      */
     @Override
     public void writeData(Path outputFile) throws IOException {
-        instance.writeData(outputFile);
+        Lock acquired = acquire(false);
+        try {
+            instance.writeData(outputFile);
+        } finally {
+            release(acquired);
+        }
     }
 
     // --------------------------------------------------------------------
@@ -582,12 +820,18 @@ public class DataContainer implements SpecificContainer {
         if (isTabular()) {
             throw new IllegalStateException("Facade methods not supported for tabular container");
         } else if (isTree()) {
-            if (isXML()) {
-                xmlInstance().add(name, value, filter);
-            } else if (isJSON()) {
-                jsonInstance().add(name, value, filter);
-            } else if (isYAML()) {
-                yamlInstance().add(name, value, filter);
+            Lock acquired = acquire(true);
+            try {
+                if (isXML()) {
+                    xmlInstance().add(name, value, filter);
+                } else if (isJSON()) {
+                    jsonInstance().add(name, value, filter);
+                } else if (isYAML()) {
+                    yamlInstance().add(name, value, filter);
+                }
+            } finally {
+                version.incrementAndGet();
+                release(acquired);
             }
         }
     }
@@ -609,16 +853,20 @@ public class DataContainer implements SpecificContainer {
         if (isTabular()) {
             throw new IllegalStateException("Facade methods not supported for tabular container");
         } else if (isTree()) {
-            if (isXML()) {
-                try {
+            Lock acquired = acquire(true);
+            try {
+                if (isXML()) {
                     xmlInstance().delete(params, attrName, attrValue, fltr);
-                } catch (IOException | TransformerException | XPathExpressionException e) {
-                    throw new DataContainerException(e);
+                } else if (isJSON()) {
+                    jsonInstance().delete(params, fltr);
+                } else if (isYAML()) {
+                    yamlInstance().delete(params, fltr);
                 }
-            } else if (isJSON()) {
-                jsonInstance().delete(params, fltr);
-            } else if (isYAML()) {
-                yamlInstance().delete(params, fltr);
+            } catch (IOException | TransformerException | XPathExpressionException e) {
+                throw new DataContainerException(e);
+            } finally {
+                version.incrementAndGet();
+                release(acquired);
             }
         }
     }
@@ -649,16 +897,19 @@ public class DataContainer implements SpecificContainer {
         if (isTabular()) {
             throw new IllegalStateException("Facade methods not supported for tabular container");
         } else if (isTree()) {
-            if (isXML()) {
-                try {
+            Lock acquired = acquire(false);
+            try {
+                if (isXML()) {
                     ret = xmlInstance().get(parameterName, fltr);
-                } catch (XPathExpressionException e) {
-                    throw new DataContainerException(e);
+                } else if (isJSON()) {
+                    ret = jsonInstance().get(parameterName, fltr);
+                } else if (isYAML()) {
+                    ret = yamlInstance().get(parameterName, fltr);
                 }
-            } else if (isJSON()) {
-                ret = jsonInstance().get(parameterName, fltr);
-            } else if (isYAML()) {
-                ret = yamlInstance().get(parameterName, fltr);
+            } catch (XPathExpressionException e) {
+                throw new DataContainerException(e);
+            } finally {
+                release(acquired);
             }
             for (int i = 0; i < ret.length; i++) {
                 ret[i] = ret[i].trim();
@@ -706,18 +957,49 @@ public class DataContainer implements SpecificContainer {
         if (isTabular()) {
             throw new IllegalStateException("Facade methods not supported for tabular container");
         } else if (isTree()) {
-            if (isXML()) {
-                try {
+            Lock acquired = acquire(true);
+            try {
+                if (isXML()) {
                     xmlInstance().set(parameterName, value, fltr, allOccurences);
-                } catch (IOException | TransformerException | XPathExpressionException e) {
-                    throw new DataContainerException(e);
+                } else if (isJSON()) {
+                    jsonInstance().set(parameterName, value, fltr);
+                } else if (isYAML()) {
+                    yamlInstance().set(parameterName, value, fltr);
                 }
-            } else if (isJSON()) {
-                jsonInstance().set(parameterName, value, fltr);
-            } else if (isYAML()) {
-                yamlInstance().set(parameterName, value, fltr);
+            } catch (IOException | TransformerException | XPathExpressionException e) {
+                throw new DataContainerException(e);
+            } finally {
+                version.incrementAndGet();
+                release(acquired);
             }
         }
     }
 
+    /**
+     * Sets the value of an attribute of the XML elements with the specified name that match the filter.
+     *
+     * @param parameterName the name of the elements
+     * @param attrName      the name of the attribute
+     * @param oldValue      the current value of the attribute to replace, or an empty string to replace any value
+     * @param attrValue     the new value of the attribute
+     * @param fltr          the filter used to locate the elements
+     * @throws IllegalStateException  if the container is no XML container
+     * @throws DataContainerException if an error occurs while setting the attribute
+     */
+    public void setAttribute(String parameterName, String attrName, String oldValue, String attrValue, Filter fltr) {
+        checkInstance();
+        if (!isXML()) {
+            throw new IllegalStateException("Attributes are only supported for XML container");
+        }
+        Lock acquired = acquire(true);
+        try {
+            xmlInstance().set(parameterName, attrName, oldValue, attrValue, fltr);
+        } catch (IOException | TransformerException e) {
+            throw new DataContainerException(e);
+        } finally {
+            version.incrementAndGet();
+            release(acquired);
+        }
+    }
+
 }
@@ -0,0 +1,35 @@
+package org.opentdk.api.datastorage;
+
+/**
+ * Enumeration that defines the aggregate functions of a group-by. See {@link Aggregation}.
+ */
+public enum EAggregate {
+	/**
+	 * Number of rows, or number of non-empty values if a column is given.
+	 */
+	COUNT,
+	/**
+	 * Sum of the numeric values.
+	 */
+	SUM,
+	/**
+	 * Arithmetic mean of the numeric values.
+	 */
+	AVG,
+	/**
+	 * Smallest numeric value.
+	 */
+	MIN,
+	/**
+	 * Largest numeric value.
+	 */
+	MAX,
+	/**
+	 * Number of different non-empty values.
+	 */
+	DISTINCT_COUNT,
+	/**
+	 * Percentile of the numeric values.
+	 */
+	PERCENTILE
+}
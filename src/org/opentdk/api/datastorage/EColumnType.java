@@ -0,0 +1,21 @@
+package org.opentdk.api.datastorage;
+
+/**
+ * Enumeration that defines the value types a column of a {@link TabularContainer} can be declared with.
+ * See {@link TabularContainer#declareColumnType(String, EColumnType)}.
+ */
+public enum EColumnType {
+	/**
+	 * Values get handled as plain strings. This is the default for all columns.
+	 */
+	STRING,
+	/**
+	 * Values are decimal numbers. They get compared by their value when sorting.
+	 */
+	NUMBER,
+	/**
+	 * Values are dates, times or time stamps in any format supported by the DateUtil. They get converted
+	 * once into epoch milliseconds for filtering, sorting and range queries.
+	 */
+	DATE
+}
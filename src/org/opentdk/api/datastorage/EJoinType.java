@@ -0,0 +1,20 @@
+package org.opentdk.api.datastorage;
+
+/**
+ * Enumeration that defines the join operations between two {@link TabularContainer} instances.
+ * See {@link TabularContainer#join(TabularContainer, EJoinType, String...)}.
+ */
+public enum EJoinType {
+	/**
+	 * Rows of the left container combined with each matching row of the right container.
+	 */
+	INNER,
+	/**
+	 * Like {@link #INNER}, but rows of the left container without a match are kept with empty right values.
+	 */
+	LEFT,
+	/**
+	 * Rows of the left container without a matching row in the right container. Only the left columns are kept.
+	 */
+	ANTI
+}
@@ -0,0 +1,173 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.util.DateUtil;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cache of the values of a {@link EColumnType#DATE} column as epoch milliseconds. The values get parsed once
+ * and are extended incrementally when rows were appended. Any other change of the container, detected by its
+ * modification counter, leads to a complete rebuild. A sorted index of the rows for range queries gets built
+ * on first use.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class EpochColumn {
+
+    /**
+     * Marks a value that is empty or no supported date, time or time stamp.
+     */
+    static final long MISSING = Long.MIN_VALUE;
+
+    /**
+     * The parsed values of the column.
+     *
+     * @param modifications the modification counter of the container at the time of parsing
+     * @param columnIndex   the index of the column at the time of parsing
+     * @param millis        the values in the order of the rows. Only the first <code>size</code> elements are used.
+     * @param size          the number of parsed rows
+     */
+    record Snapshot(long modifications, int columnIndex, long[] millis, int size) {
+
+        /**
+         * @param rowIndex the index of the row
+         * @return the value of the row or {@link #MISSING} if the row was not parsed
+         */
+        long get(int rowIndex) {
+            return rowIndex < size ? millis[rowIndex] : MISSING;
+        }
+    }
+
+    /**
+     * Row indexes ordered by value for a snapshot. Rows with missing values are not included.
+     *
+     * @param snapshot the snapshot the index belongs to
+     * @param order    the row indexes in ascending order of their values
+     * @param keys     the values of the rows in <code>order</code>
+     */
+    private record RangeIndex(Snapshot snapshot, int[] order, long[] keys) {
+    }
+
+    private volatile Snapshot snapshot;
+
+    private volatile RangeIndex rangeIndex;
+
+    /**
+     * Returns the values of all rows, parsing only the rows that were not parsed before.
+     *
+     * @param rows          the rows of the container
+     * @param columnIndex   the current index of the column
+     * @param modifications the current modification counter of the container
+     * @return the up-to-date values
+     */
+    Snapshot update(List<String[]> rows, int columnIndex, long modifications) {
+        Snapshot current = snapshot;
+        if (isCurrent(current, rows.size(), columnIndex, modifications)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            int size = rows.size();
+            if (isCurrent(current, size, columnIndex, modifications)) {
+                return current;
+            }
+            int from = 0;
+            long[] millis;
+            if (current != null && current.modifications == modifications && current.columnIndex == columnIndex && current.size < size) {
+                // Only rows were appended. Readers of the old snapshot never access the elements behind its size.
+                from = current.size;
+                millis = current.millis.length >= size ? current.millis : Arrays.copyOf(current.millis, Math.max(size, current.millis.length + (current.millis.length >> 1)));
+            } else {
+                millis = new long[size];
+            }
+            for (int i = from; i < size; i++) {
+                String[] row = rows.get(i);
+                millis[i] = columnIndex < row.length ? DateUtil.toEpochMillis(row[columnIndex], MISSING) : MISSING;
+            }
+            current = new Snapshot(modifications, columnIndex, millis, size);
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private static boolean isCurrent(Snapshot current, int size, int columnIndex, long modifications) {
+        return current != null && current.size == size && current.columnIndex == columnIndex && current.modifications == modifications;
+    }
+
+    /**
+     * Returns the indexes of the rows with a value in the given range.
+     *
+     * @param current the up-to-date values of the column
+     * @param from    the smallest value to include
+     * @param to      the largest value to include
+     * @return the row indexes in ascending order of their values. Rows with the same value keep their order.
+     */
+    int[] range(Snapshot current, long from, long to) {
+        RangeIndex index = rangeIndex;
+        if (index == null || index.snapshot != current) {
+            index = buildRangeIndex(current);
+            rangeIndex = index;
+        }
+        int start = search(index.keys, from, false);
+        int end = search(index.keys, to, true);
+        return Arrays.copyOfRange(index.order, start, Math.max(start, end));
+    }
+
+    /**
+     * @param inclusive true to skip keys that are equal to the value
+     * @return the first position with a key that is greater (or equal if not inclusive) than the value
+     */
+    private static int search(long[] keys, long value, boolean inclusive) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < value || (inclusive && keys[mid] == value)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static RangeIndex buildRangeIndex(Snapshot current) {
+        int count = 0;
+        int[] order = new int[current.size];
+        for (int i = 0; i < current.size; i++) {
+            if (current.millis[i] != MISSING) {
+                order[count++] = i;
+            }
+        }
+        order = Arrays.copyOf(order, count);
+        // Stable merge sort on the primitive indexes to avoid boxing
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count - width; low += 2 * width) {
+                merge(current.millis, order, buffer, low, low + width, Math.min(low + 2 * width, count));
+            }
+        }
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = current.millis[order[i]];
+        }
+        return new RangeIndex(current, order, keys);
+    }
+
+    private static void merge(long[] millis, int[] order, int[] buffer, int low, int mid, int high) {
+        if (millis[order[mid - 1]] <= millis[order[mid]]) {
+            return; // Already in order
+        }
+        System.arraycopy(order, low, buffer, low, high - low);
+        int left = low;
+        int right = mid;
+        for (int i = low; i < high; i++) {
+            if (right >= high || (left < mid && millis[buffer[left]] <= millis[buffer[right]])) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.exception.DataContainerException;
+import org.opentdk.api.util.CSVUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts a delimited file that does not fit into memory. The rows get read in chunks of a fixed size, each chunk
+ * gets sorted and written into a temporary run file. Finally, all runs are merged into the target file by
+ * reading one row of each run at a time. See {@link TabularContainer#sortFile(Path, Path, String, int, boolean, String...)}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class ExternalMergeSort {
+
+    /**
+     * The current row of a run file during the merge.
+     */
+    private static final class RunHead {
+        private final BufferedReader reader;
+        private final int run;
+        private String[] row;
+        private long[] keys;
+
+        private RunHead(BufferedReader reader, int run) {
+            this.reader = reader;
+            this.run = run;
+        }
+    }
+
+    private ExternalMergeSort() {
+    }
+
+    static void sort(Path sourceFile, Path targetFile, String delimiter, int maxRowsInMemory, boolean descending, String[] columns) throws IOException {
+        if (maxRowsInMemory < 1) {
+            throw new IllegalArgumentException("At least one row has to fit into memory");
+        }
+        List<Path> runs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(sourceFile, StandardCharsets.UTF_8)) {
+            String[] headers = CSVUtil.readRow(reader, delimiter);
+            if (headers == null) {
+                throw new DataContainerException("File '" + sourceFile + "' has no header row.");
+            }
+            List<String[]> chunk = readChunk(reader, delimiter, maxRowsInMemory);
+            RowOrder order = createOrder(headers, chunk, columns, descending);
+            try {
+                if (chunk.size() < maxRowsInMemory) {
+                    // Everything fits into memory
+                    writeRun(targetFile, headers, chunk, order, delimiter);
+                    return;
+                }
+                Path directory = targetFile.toAbsolutePath().getParent();
+                while (!chunk.isEmpty()) {
+                    Path run = Files.createTempFile(directory, "sort", ".run");
+                    runs.add(run);
+                    writeRun(run, null, chunk, order, delimiter);
+                    chunk = readChunk(reader, delimiter, maxRowsInMemory);
+                }
+                merge(runs, targetFile, headers, order, delimiter);
+            } finally {
+                for (Path run : runs) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+    }
+
+    private static RowOrder createOrder(String[] headers, List<String[]> sample, String[] columns, boolean descending) {
+        int[] indexes = new int[columns.length];
+        EColumnType[] types = new EColumnType[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            indexes[c] = -1;
+            for (int i = 0; i < headers.length; i++) {
+                if (headers[i].equalsIgnoreCase(columns[c])) {
+                    indexes[c] = i;
+                    break;
+                }
+            }
+            if (indexes[c] == -1) {
+                throw new DataContainerException("Column '" + columns[c] + "' not found.");
+            }
+            // The type of the whole file gets assumed by the first chunk
+            types[c] = RowOrder.detectType(sample, indexes[c]);
+        }
+        return new RowOrder(indexes, types, descending);
+    }
+
+    private static List<String[]> readChunk(BufferedReader reader, String delimiter, int maxRows) throws IOException {
+        List<String[]> ret = new ArrayList<>();
+        String[] row;
+        while (ret.size() < maxRows && (row = CSVUtil.readRow(reader, delimiter)) != null) {
+            ret.add(row);
+        }
+        return ret;
+    }
+
+    private static void writeRun(Path file, String[] headers, List<String[]> chunk, RowOrder order, String delimiter) throws IOException {
+        String[][] rows = chunk.toArray(String[][]::new);
+        chunk.clear(); // Allows to collect the list while the rows get sorted
+        int[] sorted = RowOrder.sort(rows.length, order.comparator(rows, order.keys(rows)));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (headers != null) {
+                CSVUtil.writeRow(writer, headers, delimiter);
+            }
+            for (int index : sorted) {
+                CSVUtil.writeRow(writer, rows[index], delimiter);
+            }
+        }
+    }
+
+    private static void merge(List<Path> runs, Path targetFile, String[] headers, RowOrder order, String delimiter) throws IOException {
+        // Rows of earlier runs come first if they are equal, so the sort is stable
+        PriorityQueue<RunHead> heads = new PriorityQueue<>(runs.size(), (first, second) -> {
+            int ret = order.compare(first.row, first.keys, second.row, second.keys);
+            return ret != 0 ? ret : Integer.compare(first.run, second.run);
+        });
+        List<BufferedReader> readers = new ArrayList<>();
+        try (Writer writer = Files.newBufferedWriter(targetFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < runs.size(); i++) {
+                BufferedReader reader = Files.newBufferedReader(runs.get(i), StandardCharsets.UTF_8);
+                readers.add(reader);
+                RunHead head = new RunHead(reader, i);
+                if (advance(head, order, delimiter)) {
+                    heads.add(head);
+                }
+            }
+            CSVUtil.writeRow(writer, headers, delimiter);
+            while (!heads.isEmpty()) {
+                RunHead head = heads.poll();
+                CSVUtil.writeRow(writer, head.row, delimiter);
+                if (advance(head, order, delimiter)) {
+                    heads.add(head);
+                }
+            }
+        } finally {
+            for (BufferedReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static boolean advance(RunHead head, RowOrder order, String delimiter) throws IOException {
+        head.row = CSVUtil.readRow(head.reader, delimiter);
+        if (head.row == null) {
+            return false;
+        }
+        head.keys = order.keys(head.row);
+        return true;
+    }
+}
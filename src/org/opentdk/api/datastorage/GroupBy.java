@@ -0,0 +1,251 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.util.MathUtil;
+import org.opentdk.api.util.NumberUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Groups the rows of a tabular container by key columns and aggregates the values of each group. The rows get
+ * split into partitions that are aggregated in parallel into partial maps with primitive accumulators. The partial
+ * maps are merged in the order of the partitions, so the groups keep the order of their first row.
+ * See {@link TabularContainer#groupBy(String[], Aggregation...)}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class GroupBy {
+
+    /**
+     * Minimum number of rows per partition. Smaller tables get aggregated by the calling thread only.
+     */
+    private static final int PARTITION_SIZE = 50_000;
+
+    /**
+     * Aggregated values of one aggregation within one group.
+     */
+    private static final class Accumulator {
+        private long count;
+        private double sum;
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        /**
+         * All numeric values, only used for percentiles.
+         */
+        private ColumnStats values;
+        /**
+         * All different values, only used for distinct counts.
+         */
+        private Set<String> distinct;
+
+        private void add(Aggregation aggregation, String value) {
+            switch (aggregation.getFunction()) {
+                case COUNT -> {
+                    if (aggregation.getColumn() == null || (value != null && !value.isEmpty())) {
+                        count++;
+                    }
+                }
+                case DISTINCT_COUNT -> {
+                    if (value != null && !value.isEmpty()) {
+                        if (distinct == null) {
+                            distinct = new HashSet<>();
+                        }
+                        distinct.add(value);
+                    }
+                }
+                default -> {
+                    double number = NumberUtil.parseDouble(value, Double.NaN);
+                    if (Double.isNaN(number)) {
+                        return;
+                    }
+                    count++;
+                    sum += number;
+                    if (!(number >= min)) {
+                        min = number;
+                    }
+                    if (!(number <= max)) {
+                        max = number;
+                    }
+                    if (aggregation.getFunction() == EAggregate.PERCENTILE) {
+                        if (values == null) {
+                            values = new ColumnStats();
+                        }
+                        values.add(number);
+                    }
+                }
+            }
+        }
+
+        private void merge(Accumulator other) {
+            count += other.count;
+            sum += other.sum;
+            if (!(other.min >= min)) {
+                min = other.min;
+            }
+            if (!(other.max <= max)) {
+                max = other.max;
+            }
+            if (other.values != null) {
+                if (values == null) {
+                    values = new ColumnStats();
+                }
+                values.merge(other.values);
+            }
+            if (other.distinct != null) {
+                if (distinct == null) {
+                    distinct = new HashSet<>();
+                }
+                distinct.addAll(other.distinct);
+            }
+        }
+
+        private String result(Aggregation aggregation) {
+            return switch (aggregation.getFunction()) {
+                case COUNT -> String.valueOf(count);
+                case DISTINCT_COUNT -> String.valueOf(distinct == null ? 0 : distinct.size());
+                case SUM -> count == 0 ? "" : format(sum);
+                case AVG -> count == 0 ? "" : format(sum / count);
+                case MIN -> format(min);
+                case MAX -> format(max);
+                case PERCENTILE -> values == null ? "" : format(MathUtil.getPercentile(values.toArray(), aggregation.getPercentile()));
+            };
+        }
+    }
+
+    private final String[][] rows;
+    private final int[] keyColumns;
+    private final Aggregation[] aggregations;
+    /**
+     * The column index of each aggregation or -1 to count rows.
+     */
+    private final int[] valueColumns;
+
+    GroupBy(String[][] rows, int[] keyColumns, Aggregation[] aggregations, int[] valueColumns) {
+        this.rows = rows;
+        this.keyColumns = keyColumns;
+        this.aggregations = aggregations;
+        this.valueColumns = valueColumns;
+    }
+
+    /**
+     * @return the aggregated values by group key. The key is a string for one key column, otherwise a {@link RowKey}.
+     */
+    Map<Object, String[]> aggregate() {
+        int partitions = Math.max(1, Math.min(rows.length / PARTITION_SIZE, Runtime.getRuntime().availableProcessors() * 4));
+        int size = (rows.length + partitions - 1) / partitions;
+        IntStream indexes = IntStream.range(0, partitions);
+        if (partitions > 1) {
+            indexes = indexes.parallel();
+        }
+        List<Map<Object, Accumulator[]>> partialMaps = indexes.mapToObj(i -> aggregate(i * size, Math.min(rows.length, (i + 1) * size))).toList();
+
+        Map<Object, Accumulator[]> merged = partialMaps.getFirst();
+        for (Map<Object, Accumulator[]> partial : partialMaps.subList(1, partialMaps.size())) {
+            for (Map.Entry<Object, Accumulator[]> entry : partial.entrySet()) {
+                Accumulator[] target = merged.putIfAbsent(entry.getKey(), entry.getValue());
+                if (target != null) {
+                    for (int a = 0; a < target.length; a++) {
+                        target[a].merge(entry.getValue()[a]);
+                    }
+                }
+            }
+        }
+        Map<Object, String[]> ret = new LinkedHashMap<>();
+        for (Map.Entry<Object, Accumulator[]> entry : merged.entrySet()) {
+            String[] results = new String[aggregations.length];
+            for (int a = 0; a < aggregations.length; a++) {
+                results[a] = entry.getValue()[a].result(aggregations[a]);
+            }
+            ret.put(entry.getKey(), results);
+        }
+        return ret;
+    }
+
+    private Map<Object, Accumulator[]> aggregate(int from, int to) {
+        Map<Object, Accumulator[]> ret = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            String[] row = rows[i];
+            Accumulator[] accumulators = ret.computeIfAbsent(key(row), key -> {
+                Accumulator[] newAccumulators = new Accumulator[aggregations.length];
+                for (int a = 0; a < newAccumulators.length; a++) {
+                    newAccumulators[a] = new Accumulator();
+                }
+                return newAccumulators;
+            });
+            for (int a = 0; a < aggregations.length; a++) {
+                int column = valueColumns[a];
+                accumulators[a].add(aggregations[a], column >= 0 && column < row.length ? row[column] : null);
+            }
+        }
+        return ret;
+    }
+
+    private Object key(String[] row) {
+        if (keyColumns.length == 1) {
+            return value(row, keyColumns[0]);
+        }
+        String[] values = new String[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            values[i] = value(row, keyColumns[i]);
+        }
+        return new RowKey(values);
+    }
+
+    /**
+     * @return the value of the column or an empty string if the row is too short, so it forms a group as well
+     */
+    private static String value(String[] row, int column) {
+        return column < row.length && row[column] != null ? row[column] : "";
+    }
+
+    /**
+     * @param key a key returned by {@link #aggregate()}
+     * @return the values of the key columns
+     */
+    static String[] keyValues(Object key) {
+        return key instanceof RowKey rowKey ? rowKey.values() : new String[] { (String) key };
+    }
+
+    /**
+     * Formats a number without a fraction if it is integral, e.g. <code>3</code> instead of <code>3.0</code>.
+     *
+     * @return the formatted number or an empty string for NaN
+     */
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * @return a new container with the key columns followed by the aggregated columns
+     */
+    TabularContainer toContainer(String[] keyHeaders) {
+        String[] headers = new String[keyHeaders.length + aggregations.length];
+        System.arraycopy(keyHeaders, 0, headers, 0, keyHeaders.length);
+        for (int a = 0; a < aggregations.length; a++) {
+            headers[keyHeaders.length + a] = aggregations[a].getHeader();
+        }
+        List<String[]> result = new ArrayList<>();
+        for (Map.Entry<Object, String[]> entry : aggregate().entrySet()) {
+            String[] row = new String[headers.length];
+            String[] keys = keyValues(entry.getKey());
+            System.arraycopy(keys, 0, row, 0, keys.length);
+            System.arraycopy(entry.getValue(), 0, row, keys.length, aggregations.length);
+            result.add(row);
+        }
+        TabularContainer ret = TabularContainer.newInstance();
+        ret.initHeaders(headers);
+        ret.replaceRows(result);
+        return ret;
+    }
+}
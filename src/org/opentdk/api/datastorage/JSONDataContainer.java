@@ -195,7 +195,7 @@ public class JSONDataContainer implements SpecificContainer {
 					}
 				}
 			}
-			ret = (String[]) filteredValues.toArray();
+			ret = filteredValues.toArray(String[]::new);
 		} else {
 			Object result = json.get(headerName);
 			String sResult = result.toString();
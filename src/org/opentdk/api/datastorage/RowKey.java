@@ -0,0 +1,28 @@
+package org.opentdk.api.datastorage;
+
+import java.util.Arrays;
+
+/**
+ * Hash key of the values of several columns of a row, used to join and group rows.
+ *
+ * @param values the key values
+ *
+ * @author FME (LK Test Solutions)
+ */
+record RowKey(String[] values) {
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RowKey other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,283 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.util.DateUtil;
+import org.opentdk.api.util.NumberUtil;
+
+import java.util.Arrays;
+
+/**
+ * Sort order of tabular rows by one or more columns. Numbers and dates get compared by their value, all other
+ * columns as strings. The values of typed columns are converted once into sortable <code>long</code> keys, so
+ * the comparisons do not parse. Empty values and values that do not fit the type are sorted last in both
+ * directions.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class RowOrder {
+
+    /**
+     * Key of a value that is empty or does not fit the column type.
+     */
+    private static final long MISSING = EpochColumn.MISSING;
+
+    /**
+     * Compares two rows by their index.
+     */
+    @FunctionalInterface
+    interface IndexComparator {
+        int compare(int first, int second);
+    }
+
+    private final int[] columns;
+
+    private final EColumnType[] types;
+
+    private final boolean descending;
+
+    /**
+     * @param columns    the indexes of the columns to sort by, in the order of their priority
+     * @param types      the type of each column at the same position
+     * @param descending true to sort the largest values first
+     */
+    RowOrder(int[] columns, EColumnType[] types, boolean descending) {
+        this.columns = columns;
+        this.types = types;
+        this.descending = descending;
+    }
+
+    /**
+     * Detects the type of a column that was not declared. The column is a number column if all non-empty values
+     * are numbers, otherwise a string column.
+     *
+     * @param rows        the rows to check
+     * @param columnIndex the index of the column
+     * @return {@link EColumnType#NUMBER} or {@link EColumnType#STRING}
+     */
+    static EColumnType detectType(Iterable<String[]> rows, int columnIndex) {
+        boolean anyNumber = false;
+        for (String[] row : rows) {
+            String value = columnIndex < row.length ? row[columnIndex] : null;
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            if (Double.isNaN(NumberUtil.parseDouble(value, Double.NaN))) {
+                return EColumnType.STRING;
+            }
+            anyNumber = true;
+        }
+        return anyNumber ? EColumnType.NUMBER : EColumnType.STRING;
+    }
+
+    /**
+     * Converts the values of the typed columns into keys.
+     *
+     * @param rows the rows to convert
+     * @return the keys of each column (null for string columns) in the order of the rows
+     */
+    long[][] keys(String[][] rows) {
+        return keys(rows, new long[columns.length][]);
+    }
+
+    /**
+     * Like {@link #keys(String[][])}, but uses the given keys where available.
+     *
+     * @param rows   the rows to convert
+     * @param cached already converted keys of a column or null, e.g. epoch values of a date column
+     * @return the keys of each column (null for string columns) in the order of the rows
+     */
+    long[][] keys(String[][] rows, long[][] cached) {
+        long[][] ret = new long[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            if (cached[c] != null && types[c] == EColumnType.DATE) {
+                ret[c] = cached[c];
+            } else if (types[c] != EColumnType.STRING) {
+                ret[c] = new long[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    ret[c][i] = key(c, rows[i]);
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Converts the values of the typed columns of one row into keys.
+     *
+     * @param row the row to convert
+     * @return the key of each column, 0 for string columns
+     */
+    long[] keys(String[] row) {
+        long[] ret = new long[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            ret[c] = types[c] == EColumnType.STRING ? 0 : key(c, row);
+        }
+        return ret;
+    }
+
+    private long key(int c, String[] row) {
+        String value = columns[c] < row.length ? row[columns[c]] : null;
+        if (types[c] == EColumnType.DATE) {
+            return DateUtil.toEpochMillis(value, MISSING);
+        }
+        double number = NumberUtil.parseDouble(value, Double.NaN);
+        if (Double.isNaN(number)) {
+            return MISSING;
+        }
+        // Maps the double values to long values with the same order. Adding 0.0 turns -0.0 into 0.0.
+        long bits = Double.doubleToLongBits(number + 0.0);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a comparator for rows whose keys were built by {@link #keys(String[][])}.
+     *
+     * @param rows the rows
+     * @param keys the keys of the rows
+     * @return the comparator of the row indexes
+     */
+    IndexComparator comparator(String[][] rows, long[][] keys) {
+        return (first, second) -> {
+            for (int c = 0; c < columns.length; c++) {
+                int ret = keys[c] == null ? compareValues(value(rows[first], c), value(rows[second], c)) : compareKeys(keys[c][first], keys[c][second]);
+                if (ret != 0) {
+                    return ret;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Compares two rows whose keys were built by {@link #keys(String[])}.
+     */
+    int compare(String[] first, long[] firstKeys, String[] second, long[] secondKeys) {
+        for (int c = 0; c < columns.length; c++) {
+            int ret = types[c] == EColumnType.STRING ? compareValues(value(first, c), value(second, c)) : compareKeys(firstKeys[c], secondKeys[c]);
+            if (ret != 0) {
+                return ret;
+            }
+        }
+        return 0;
+    }
+
+    private String value(String[] row, int c) {
+        return columns[c] < row.length ? row[columns[c]] : null;
+    }
+
+    private int compareKeys(long first, long second) {
+        if (first == MISSING || second == MISSING) {
+            return Boolean.compare(first == MISSING, second == MISSING);
+        }
+        return descending ? Long.compare(second, first) : Long.compare(first, second);
+    }
+
+    private int compareValues(String first, String second) {
+        boolean firstMissing = first == null || first.isEmpty();
+        boolean secondMissing = second == null || second.isEmpty();
+        if (firstMissing || secondMissing) {
+            return Boolean.compare(firstMissing, secondMissing);
+        }
+        return descending ? second.compareTo(first) : first.compareTo(second);
+    }
+
+    /**
+     * Sorts the indexes <code>0..size-1</code> by a stable merge sort on primitives.
+     *
+     * @param size       the number of indexes
+     * @param comparator the order of the indexes
+     * @return the sorted indexes. Equal elements keep their order.
+     */
+    static int[] sort(int size, IndexComparator comparator) {
+        int[] order = new int[size];
+        Arrays.setAll(order, i -> i);
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size - width; low += 2 * width) {
+                int mid = low + width;
+                int high = Math.min(low + 2 * width, size);
+                if (comparator.compare(order[mid - 1], order[mid]) <= 0) {
+                    continue; // Already in order
+                }
+                System.arraycopy(order, low, buffer, low, high - low);
+                int left = low;
+                int right = mid;
+                for (int i = low; i < high; i++) {
+                    if (right >= high || (left < mid && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                        order[i] = buffer[left++];
+                    } else {
+                        order[i] = buffer[right++];
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Selects the first elements of the order by a bounded heap, without sorting all indexes.
+     *
+     * @param size       the number of indexes
+     * @param n          the number of indexes to select
+     * @param comparator the order of the indexes
+     * @return the first <code>n</code> indexes in sorted order. Equal elements keep their order.
+     */
+    static int[] top(int size, int n, IndexComparator comparator) {
+        // Ties get broken by the index, so the result is the same as the start of a stable sort
+        IndexComparator stable = (first, second) -> {
+            int ret = comparator.compare(first, second);
+            return ret != 0 ? ret : Integer.compare(first, second);
+        };
+        int[] heap = new int[Math.min(n, size)];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (count < heap.length) {
+                // Sift up, the root is the last element of the selection
+                int child = count++;
+                heap[child] = i;
+                while (child > 0) {
+                    int parent = (child - 1) / 2;
+                    if (stable.compare(heap[parent], heap[child]) >= 0) {
+                        break;
+                    }
+                    swap(heap, parent, child);
+                    child = parent;
+                }
+            } else if (count > 0 && stable.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, count, stable);
+            }
+        }
+        // Removing the roots yields the selection from the last to the first element
+        int[] ret = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            ret[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, stable);
+        }
+        return ret;
+    }
+
+    private static void siftDown(int[] heap, int count, IndexComparator comparator) {
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= count) {
+                return;
+            }
+            if (child + 1 < count && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(heap[parent], heap[child]) >= 0) {
+                return;
+            }
+            swap(heap, parent, child);
+            parent = child;
+        }
+    }
+
+    private static void swap(int[] heap, int first, int second) {
+        int tmp = heap[first];
+        heap[first] = heap[second];
+        heap[second] = tmp;
+    }
+}
@@ -0,0 +1,285 @@
+package org.opentdk.api.datastorage;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe row storage of the {@link ConcurrentTabularContainer}. The rows are kept in fixed-size
+ * segments that are published together with the row count as one immutable snapshot. Readers never lock:
+ * they work on the snapshot that was current when they started, so iterators and streams are not affected
+ * by concurrent modifications.
+ * <p>
+ * Appends write into free slots of the last segment that are not part of any published snapshot. All other
+ * modifications copy the affected segments before publishing the new snapshot (copy-on-write). Writers are
+ * serialized by a short lock that never covers I/O.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class SegmentedRowList extends AbstractList<String[]> implements RandomAccess {
+
+    /**
+     * Number of bits used for the row index within a segment. A segment holds 4096 rows.
+     */
+    private static final int SEGMENT_SHIFT = 12;
+
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    /**
+     * Immutable view on the segments and the number of rows that belong to the list.
+     */
+    private record Snapshot(String[][][] segments, int size) {
+
+        String[] get(int index) {
+            return segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+    }
+
+    /**
+     * Serializes all modifications. Reentrant to allow the container to group several operations.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * The currently published rows.
+     */
+    private volatile Snapshot snapshot = new Snapshot(new String[0][][], 0);
+
+    SegmentedRowList() {
+    }
+
+    SegmentedRowList(Collection<String[]> content) {
+        snapshot = build(content.toArray(String[][]::new));
+    }
+
+    /**
+     * @return the lock that serializes all modifications of this list.
+     */
+    ReentrantLock getWriteLock() {
+        return writeLock;
+    }
+
+    /**
+     * Atomically replaces all rows of the list.
+     *
+     * @param content the new rows
+     */
+    void reset(Collection<String[]> content) {
+        Snapshot newSnapshot = build(content.toArray(String[][]::new));
+        writeLock.lock();
+        try {
+            snapshot = newSnapshot;
+            modCount++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String[] get(int index) {
+        Snapshot current = snapshot;
+        Objects.checkIndex(index, current.size);
+        return current.get(index);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+
+    @Override
+    public boolean add(String[] row) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            String[][][] segments = current.segments;
+            int segment = current.size >>> SEGMENT_SHIFT;
+            if (segment == segments.length) {
+                segments = Arrays.copyOf(segments, segments.length + 1);
+                segments[segment] = new String[SEGMENT_SIZE][];
+            }
+            // The slot is behind the size of all published snapshots, so it is invisible until the new one gets published
+            segments[segment][current.size & SEGMENT_MASK] = row;
+            snapshot = new Snapshot(segments, current.size + 1);
+            modCount++;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void add(int index, String[] row) {
+        writeLock.lock();
+        try {
+            String[][] rows = toArray(snapshot);
+            Objects.checkIndex(index, rows.length + 1);
+            String[][] newRows = new String[rows.length + 1][];
+            System.arraycopy(rows, 0, newRows, 0, index);
+            newRows[index] = row;
+            System.arraycopy(rows, index, newRows, index + 1, rows.length - index);
+            publish(newRows);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String[] set(int index, String[] row) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            Objects.checkIndex(index, current.size);
+            String[][][] segments = current.segments.clone();
+            int segment = index >>> SEGMENT_SHIFT;
+            segments[segment] = segments[segment].clone();
+            String[] old = segments[segment][index & SEGMENT_MASK];
+            segments[segment][index & SEGMENT_MASK] = row;
+            snapshot = new Snapshot(segments, current.size);
+            return old;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public String[] remove(int index) {
+        writeLock.lock();
+        try {
+            String[][] rows = toArray(snapshot);
+            Objects.checkIndex(index, rows.length);
+            String[] old = rows[index];
+            String[][] newRows = new String[rows.length - 1][];
+            System.arraycopy(rows, 0, newRows, 0, index);
+            System.arraycopy(rows, index + 1, newRows, index, rows.length - index - 1);
+            publish(newRows);
+            return old;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super String[]> filter) {
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            List<String[]> kept = new ArrayList<>(current.size);
+            for (int i = 0; i < current.size; i++) {
+                String[] row = current.get(i);
+                if (!filter.test(row)) {
+                    kept.add(row);
+                }
+            }
+            if (kept.size() == current.size) {
+                return false;
+            }
+            publish(kept.toArray(String[][]::new));
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<String[]> operator) {
+        writeLock.lock();
+        try {
+            String[][] rows = toArray(snapshot);
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = operator.apply(rows[i]);
+            }
+            snapshot = build(rows);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void sort(Comparator<? super String[]> comparator) {
+        writeLock.lock();
+        try {
+            String[][] rows = toArray(snapshot);
+            Arrays.sort(rows, comparator);
+            publish(rows);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        writeLock.lock();
+        try {
+            publish(new String[0][]);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return an iterator over the rows that were present when this method was called.
+     */
+    @Override
+    public Iterator<String[]> iterator() {
+        return iterator(snapshot);
+    }
+
+    @Override
+    public Spliterator<String[]> spliterator() {
+        Snapshot current = snapshot;
+        return Spliterators.spliterator(iterator(current), current.size, Spliterator.ORDERED);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(snapshot);
+    }
+
+    private static Iterator<String[]> iterator(Snapshot current) {
+        return new Iterator<>() {
+            private int cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < current.size;
+            }
+
+            @Override
+            public String[] next() {
+                if (cursor >= current.size) {
+                    throw new NoSuchElementException();
+                }
+                return current.get(cursor++);
+            }
+        };
+    }
+
+    private void publish(String[][] rows) {
+        snapshot = build(rows);
+        modCount++;
+    }
+
+    private static String[][] toArray(Snapshot current) {
+        String[][] rows = new String[current.size][];
+        for (int segment = 0; segment * SEGMENT_SIZE < current.size; segment++) {
+            int length = Math.min(SEGMENT_SIZE, current.size - segment * SEGMENT_SIZE);
+            System.arraycopy(current.segments[segment], 0, rows, segment * SEGMENT_SIZE, length);
+        }
+        return rows;
+    }
+
+    private static Snapshot build(String[][] rows) {
+        int segmentCount = (rows.length + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+        String[][][] segments = new String[segmentCount][][];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            segments[segment] = new String[SEGMENT_SIZE][];
+            int length = Math.min(SEGMENT_SIZE, rows.length - segment * SEGMENT_SIZE);
+            System.arraycopy(rows, segment * SEGMENT_SIZE, segments[segment], 0, length);
+        }
+        return new Snapshot(segments, rows.length);
+    }
+}
@@ -0,0 +1,194 @@
+package org.opentdk.api.datastorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Joins the rows of two tabular containers by key columns. If both sides are sorted by their keys, the rows get
+ * combined by a single merge pass. Otherwise, a hash table of the right rows is built and probed with each left
+ * row. Both ways keep the order of the left rows and, for each left row, the order of the matching right rows.
+ * See {@link TabularContainer#join(TabularContainer, EJoinType, String...)}.
+ *
+ * @author FME (LK Test Solutions)
+ */
+final class TableJoin {
+
+    private final String[][] leftRows;
+    private final String[][] rightRows;
+    private final int[] leftKeys;
+    private final int[] rightKeys;
+    private final EJoinType type;
+    private final int leftWidth;
+    /**
+     * The columns of the right rows that are added to the result, which are all except the key columns.
+     */
+    private final int[] rightColumns;
+    private final List<String[]> result = new ArrayList<>();
+
+    private TableJoin(String[][] leftRows, String[][] rightRows, int[] leftKeys, int[] rightKeys, EJoinType type, int leftWidth, int[] rightColumns) {
+        this.leftRows = leftRows;
+        this.rightRows = rightRows;
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.type = type;
+        this.leftWidth = leftWidth;
+        this.rightColumns = rightColumns;
+    }
+
+    /**
+     * @param left      the left side of the join
+     * @param right     the right side of the join
+     * @param leftKeys  the indexes of the key columns of the left side
+     * @param rightKeys the indexes of the key columns of the right side in the same order
+     * @param type      the join operation
+     * @return a new container with the joined rows
+     */
+    static TabularContainer join(TabularContainer left, TabularContainer right, int[] leftKeys, int[] rightKeys, EJoinType type) {
+        String[] leftHeaders = left.getHeaders();
+        String[] rightHeaders = right.getHeaders();
+        Set<Integer> keySet = new HashSet<>();
+        for (int key : rightKeys) {
+            keySet.add(key);
+        }
+        int[] rightColumns = type == EJoinType.ANTI ? new int[0] : IntStream.range(0, rightHeaders.length).filter(i -> !keySet.contains(i)).toArray();
+
+        // Right headers that already exist get a number like by TabularContainer.addColumn
+        List<String> headers = new ArrayList<>(Arrays.asList(leftHeaders));
+        Set<String> names = new HashSet<>(headers);
+        for (int column : rightColumns) {
+            String name = rightHeaders[column];
+            int count = 2;
+            while (names.contains(name)) {
+                name = rightHeaders[column] + "_" + count;
+                count++;
+            }
+            names.add(name);
+            headers.add(name);
+        }
+
+        TableJoin join = new TableJoin(left.getRows().toArray(String[][]::new), right.getRows().toArray(String[][]::new), leftKeys, rightKeys, type, leftHeaders.length, rightColumns);
+        if (isSorted(join.leftRows, leftKeys) && isSorted(join.rightRows, rightKeys)) {
+            join.mergeJoin();
+        } else {
+            join.hashJoin();
+        }
+        TabularContainer ret = TabularContainer.newInstance();
+        ret.initHeaders(headers.toArray(String[]::new));
+        ret.replaceRows(join.result);
+        return ret;
+    }
+
+    private void hashJoin() {
+        // The first matching right row per key, further ones are chained by their index
+        Map<Object, Integer> first = new HashMap<>(Math.max(16, rightRows.length * 4 / 3 + 1));
+        int[] next = new int[rightRows.length];
+        for (int i = rightRows.length - 1; i >= 0; i--) {
+            Object key = key(rightRows[i], rightKeys);
+            if (key != null) {
+                Integer previous = first.put(key, i);
+                next[i] = previous == null ? -1 : previous;
+            }
+        }
+        for (String[] leftRow : leftRows) {
+            Object key = key(leftRow, leftKeys);
+            Integer match = key == null ? null : first.get(key);
+            if (match == null) {
+                emitUnmatched(leftRow);
+            } else if (type != EJoinType.ANTI) {
+                for (int i = match; i != -1; i = next[i]) {
+                    emit(leftRow, rightRows[i]);
+                }
+            }
+        }
+    }
+
+    private void mergeJoin() {
+        int start = 0;
+        for (String[] leftRow : leftRows) {
+            while (start < rightRows.length && compare(rightRows[start], rightKeys, leftRow, leftKeys) < 0) {
+                start++;
+            }
+            int end = start;
+            while (end < rightRows.length && compare(rightRows[end], rightKeys, leftRow, leftKeys) == 0) {
+                end++;
+            }
+            if (end == start) {
+                emitUnmatched(leftRow);
+            } else if (type != EJoinType.ANTI) {
+                for (int i = start; i < end; i++) {
+                    emit(leftRow, rightRows[i]);
+                }
+            }
+        }
+    }
+
+    private void emitUnmatched(String[] leftRow) {
+        if (type == EJoinType.LEFT) {
+            emit(leftRow, null);
+        } else if (type == EJoinType.ANTI) {
+            result.add(leftRow.clone()); // Rows of the result can be changed independently
+        }
+    }
+
+    private void emit(String[] leftRow, String[] rightRow) {
+        String[] row = new String[leftWidth + rightColumns.length];
+        for (int i = 0; i < leftWidth; i++) {
+            row[i] = i < leftRow.length ? leftRow[i] : "";
+        }
+        for (int i = 0; i < rightColumns.length; i++) {
+            int column = rightColumns[i];
+            row[leftWidth + i] = rightRow != null && column < rightRow.length ? rightRow[column] : "";
+        }
+        result.add(row);
+    }
+
+    /**
+     * @return the key of the row or null if a key column is missing, which never matches
+     */
+    private static Object key(String[] row, int[] keys) {
+        if (keys.length == 1) {
+            return keys[0] < row.length ? row[keys[0]] : null;
+        }
+        String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] >= row.length || row[keys[i]] == null) {
+                return null;
+            }
+            values[i] = row[keys[i]];
+        }
+        return new RowKey(values);
+    }
+
+    /**
+     * @return true if all rows have their keys and are in ascending order of them
+     */
+    private static boolean isSorted(String[][] rows, int[] keys) {
+        for (int i = 0; i < rows.length; i++) {
+            for (int key : keys) {
+                if (key >= rows[i].length || rows[i][key] == null) {
+                    return false;
+                }
+            }
+            if (i > 0 && compare(rows[i - 1], keys, rows[i], keys) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(String[] first, int[] firstKeys, String[] second, int[] secondKeys) {
+        for (int i = 0; i < firstKeys.length; i++) {
+            int ret = first[firstKeys[i]].compareTo(second[secondKeys[i]]);
+            if (ret != 0) {
+                return ret;
+            }
+        }
+        return 0;
+    }
+}
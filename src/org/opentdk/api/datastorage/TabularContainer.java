@@ -3,16 +3,27 @@ package org.opentdk.api.datastorage;
 import lombok.Getter;
 import lombok.Setter;
 import org.opentdk.api.exception.DataContainerException;
+import org.opentdk.api.filter.EOperator;
 import org.opentdk.api.filter.Filter;
+import org.opentdk.api.filter.FilterExpression;
 import org.opentdk.api.filter.FilterRule;
+import org.opentdk.api.metrics.Counter;
+import org.opentdk.api.metrics.MetricsRegistry;
 import org.opentdk.api.util.CSVUtil;
+import org.opentdk.api.util.DateUtil;
+import org.opentdk.api.util.NumberUtil;
 
 import java.io.*;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 /**
  * A container class to manage CSV data, including headers and rows.
@@ -23,6 +34,12 @@ import java.util.stream.Stream;
  */
 public class TabularContainer implements SpecificContainer {
 
+    /**
+     * Number of rows that got checked by a compiled filter. Gets counted once per scan by
+     * {@link #countFilterEvaluations(int)}, so the matchers stay free of side effects.
+     */
+    private static final Counter FILTER_EVALUATIONS = MetricsRegistry.getDefault().counter("filter.evaluations");
+
     /**
      * Represents a collection of rows where each row is an array of strings.
      * Used to store tabular data or structured information.
@@ -36,7 +53,7 @@ public class TabularContainer implements SpecificContainer {
      * a specific header value.
      */
     @Getter @Setter
-    private String[] headers;
+    private volatile String[] headers;
 
     /**
      * A map that associates header names with their respective integer values.
@@ -52,6 +69,49 @@ public class TabularContainer implements SpecificContainer {
     @Setter
     private String delimiter = ";";
 
+    /**
+     * Counts all changes of the container except appended rows. Used to detect if rows that were
+     * already persisted by {@link #appendData(Path)} have changed.
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * State of the file that was written last by {@link #writeData(Path)} or {@link #appendData(Path)}.
+     * Null if no file was written yet.
+     */
+    private volatile Watermark persisted;
+
+    /**
+     * Declared types of the columns by header name. See {@link #declareColumnType(String, EColumnType)}.
+     */
+    private final Map<String, EColumnType> columnTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Cached epoch values of the columns that were declared as {@link EColumnType#DATE}, by header name.
+     */
+    private final Map<String, EpochColumn> dateColumns = new ConcurrentHashMap<>();
+
+    /**
+     * Checks a row against a filter. Compiled once per filter call by {@link #compileFilter(Filter)}.
+     */
+    @FunctionalInterface
+    interface RowMatcher {
+        boolean matches(int rowIndex, String[] row);
+    }
+
+    /**
+     * Describes the file content that was written by this container.
+     *
+     * @param file          the written file
+     * @param headers       the headers at the time of writing
+     * @param delimiter     the delimiter at the time of writing
+     * @param modifications the value of {@link #modifications} before writing
+     * @param rowCount      the number of rows in the file
+     * @param fileSize      the size of the file after writing
+     */
+    private record Watermark(Path file, String[] headers, String delimiter, long modifications, int rowCount, long fileSize) {
+    }
+
     /**
      * Creates a new instance of the CSVDataContainer.
      *
@@ -68,9 +128,40 @@ public class TabularContainer implements SpecificContainer {
      * to the containing class or subclasses.
      */
     protected TabularContainer() {
-        rows = new ArrayList<>();
-        headers = new String[0];
-        headerMap = new HashMap<>();
+        this(new ArrayList<>(), new HashMap<>());
+    }
+
+    /**
+     * Constructs a new instance that uses the given storage objects. Subclasses can use this to
+     * provide a specific row list or header map implementation, e.g. a thread-safe one.
+     *
+     * @param rows      the initially empty list that stores the rows
+     * @param headerMap the initially empty map that stores the column indexes by header name
+     */
+    protected TabularContainer(List<String[]> rows, Map<String, Integer> headerMap) {
+        this.rows = rows;
+        this.headers = new String[0];
+        this.headerMap = headerMap;
+    }
+
+    /**
+     * Replaces all rows of the container by the given content. Gets called when new data is read.
+     *
+     * @param content the new rows without the header row
+     */
+    protected void replaceRows(List<String[]> content) {
+        rows = content;
+    }
+
+    /**
+     * Stores new values for an existing row. The values get copied into the row array, so references to the
+     * row that were obtained before see the new values.
+     *
+     * @param rowIndex the index of the row to update
+     * @param values   the new values of the row with the same length as the existing row
+     */
+    protected void storeRow(int rowIndex, String[] values) {
+        System.arraycopy(values, 0, rows.get(rowIndex), 0, values.length);
     }
 
     /**
@@ -82,7 +173,7 @@ public class TabularContainer implements SpecificContainer {
      */
     @Override
     public String asString() {
-       return CSVUtil.asString(getRowsWithHeader());
+       return CSVUtil.asString(headers, rows);
     }
 
     /**
@@ -95,9 +186,11 @@ public class TabularContainer implements SpecificContainer {
      */
     @Override
     public void readData(Path sourceFile) throws IOException {
-        rows = CSVUtil.readFile(sourceFile.toFile(), delimiter, StandardCharsets.UTF_8);
-        headers = rows.getFirst();
-        rows.removeFirst(); // Headers are stored and can be removed from the rows list
+        List<String[]> content = CSVUtil.readFile(sourceFile.toFile(), delimiter, StandardCharsets.UTF_8);
+        headers = content.getFirst();
+        content.removeFirst(); // Headers are stored and can be removed from the rows list
+        replaceRows(content);
+        modifications.incrementAndGet();
         for(int i = 0; i < headers.length; i++) {
             headerMap.put(headers[i], i);
         }
@@ -117,35 +210,118 @@ public class TabularContainer implements SpecificContainer {
      */
     @Override
     public void readData(InputStream stream) throws IOException {
-        rows = new ArrayList<>();
-        List<String> content = null;
+        List<String[]> content = new ArrayList<>();
         if (stream != null) {
-            InputStreamReader inputStreamReader = new InputStreamReader(stream);
-            Stream<String> streamOfString = new BufferedReader(inputStreamReader).lines();
-            content = streamOfString.toList();
-
-            streamOfString.close();
-            inputStreamReader.close();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+            content = CSVUtil.readRows(reader, delimiter);
+            reader.close();
         }
-        if(content != null) {
-            for(String row : content) {
-                rows.add(row.split(delimiter));
+        if(!content.isEmpty()) {
+            headers = content.getFirst();
+            content.removeFirst();
+            for(int i = 0; i < headers.length; i++) {
+                headerMap.put(headers[i], i);
             }
-            headers = rows.getFirst();
-            rows.removeFirst();
         }
+        replaceRows(content);
+        modifications.incrementAndGet();
     }
 
     /**
      * Writes the data represented by this CSVDataContainer instance, including headers and rows,
      * to the specified output file with the defined delimiter and UTF-8 character encoding.
+     * The rows get streamed into the file, so no copy of the data is required.
      *
      * @param outputFile The path to the output file where the data will be written.
      * @throws IOException If an I/O error occurs while writing the file.
      */
     @Override
     public void writeData(Path outputFile) throws IOException {
-        CSVUtil.writeFile(getRowsWithHeader(), outputFile, delimiter, StandardCharsets.UTF_8);
+        long currentModifications = modifications.get();
+        String[] currentHeaders = headers;
+        int rowCount = rows.size();
+        CSVUtil.writeFile(currentHeaders, rowRange(0, rowCount), outputFile, delimiter, StandardCharsets.UTF_8);
+        persisted = new Watermark(outputFile, currentHeaders.clone(), delimiter, currentModifications, rowCount, Files.size(outputFile));
+    }
+
+    /**
+     * Writes only the rows that were added since the last call of this method or {@link #writeData(Path)}
+     * for the same file. If the file was not written by this container before, or the headers, the delimiter,
+     * any persisted row or the file itself changed in the meantime, the whole file gets rewritten like
+     * {@link #writeData(Path)} does.
+     * <p>
+     * Changes that get applied directly to the objects returned by {@link #getRows()} or {@link #getHeaders()}
+     * cannot be detected, except rows that got appended.
+     *
+     * @param outputFile The path to the output file where the data will be written.
+     * @throws IOException If an I/O error occurs while writing the file.
+     */
+    public void appendData(Path outputFile) throws IOException {
+        Watermark last = persisted;
+        long currentModifications = modifications.get();
+        int rowCount = rows.size();
+        if (last == null || !last.file().equals(outputFile) || last.modifications() != currentModifications
+                || !Arrays.equals(last.headers(), headers) || !last.delimiter().equals(delimiter) || rowCount < last.rowCount()
+                || !Files.isRegularFile(outputFile) || Files.size(outputFile) != last.fileSize()) {
+            writeData(outputFile);
+            return;
+        }
+        if (rowCount > last.rowCount()) {
+            try (Writer writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+                for (String[] row : rowRange(last.rowCount(), rowCount)) {
+                    CSVUtil.writeRow(writer, row, delimiter);
+                }
+            }
+            persisted = new Watermark(outputFile, last.headers(), last.delimiter(), currentModifications, rowCount, Files.size(outputFile));
+        }
+    }
+
+    /**
+     * Provides the rows within the given range by index. Other than a sub list this does not fail if rows
+     * get appended concurrently.
+     *
+     * @param from the index of the first row
+     * @param to   the index after the last row
+     * @return the rows within the range
+     */
+    private Iterable<String[]> rowRange(int from, int to) {
+        return () -> IntStream.range(from, to).mapToObj(rows::get).iterator();
+    }
+
+    /**
+     * Writes the headers and rows of this container with the defined delimiter into the given writer.
+     * The writer does not get flushed or closed.
+     *
+     * @param writer The target of the data, preferably buffered.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void writeData(Writer writer) throws IOException {
+        CSVUtil.writeRows(writer, headers, rows, delimiter);
+    }
+
+    /**
+     * Writes the headers and rows of this container with the defined delimiter and UTF-8 character
+     * encoding into the given channel. The channel does not get closed.
+     *
+     * @param channel The target of the data e.g. a {@link java.nio.channels.FileChannel}.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public void writeData(WritableByteChannel channel) throws IOException {
+        CSVUtil.writeRows(channel, headers, rows, delimiter, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens an append-only sink that writes the headers and current rows of this container into the
+     * given file and then streams all rows appended to the sink. Any number of threads can append
+     * without blocking, see {@link TabularSink}. The rows of the sink do not get added to this container.
+     *
+     * @param outputFile    The path to the output file that gets created or overwritten.
+     * @param flushInterval The delay between two background flushes of the appended rows.
+     * @return the opened sink that has to be closed after the last row
+     * @throws IOException If an I/O error occurs while creating the file.
+     */
+    public TabularSink openSink(Path outputFile, Duration flushInterval) throws IOException {
+        return new TabularSink(outputFile, headers, rows, delimiter, flushInterval);
     }
 
     /**
@@ -178,12 +354,17 @@ public class TabularContainer implements SpecificContainer {
         if (rows.isEmpty()) {
             return new String[0];
         }
-        for(String[] row : rows) {
-            if(checkValuesFilter(row, filter)) {
-                return row;
+        RowMatcher matcher = compileFilter(filter);
+        String[] ret = null;
+        int rowIndex = 0;
+        for (String[] row : rows) {
+            if (matcher.matches(rowIndex++, row)) {
+                ret = row;
+                break;
             }
         }
-        return null;
+        countFilterEvaluations(rowIndex);
+        return ret;
     }
 
     /**
@@ -197,17 +378,40 @@ public class TabularContainer implements SpecificContainer {
         if (rows.isEmpty()) {
             return new ArrayList<>();
         }
-        Predicate<String[]> predicate = row -> checkValuesFilter(row, filter);
-        return rows.stream().filter(predicate).toList();
+        RowMatcher matcher = compileFilter(filter);
+        List<String[]> ret = new ArrayList<>();
+        int rowIndex = 0;
+        for (String[] row : rows) {
+            if (matcher.matches(rowIndex++, row)) {
+                ret.add(row);
+            }
+        }
+        countFilterEvaluations(rowIndex);
+        return ret;
+    }
+
+    /**
+     * Retrieves the rows that match a condition in the syntax of an SQL WHERE clause, e.g.
+     * <code>Land IN ('Schweiz', 'Italien') AND Alter BETWEEN 30 AND 50</code>. The condition gets parsed and
+     * compiled once, see {@link FilterExpression}.
+     *
+     * @param where The condition that the rows have to match.
+     * @return the matching rows in their order
+     * @throws IllegalArgumentException If the condition has a syntax error or a column is not found.
+     */
+    public List<String[]> getRows(String where) {
+        return query().where(where).toList();
     }
 
     public List<String[]> getRows(String[] outHeaders, Filter filter) {
         if (rows.isEmpty()) {
             return new ArrayList<>();
         }
+        RowMatcher matcher = compileFilter(filter);
         List<String[]> ret = new ArrayList<>();
+        int rowIndex = 0;
         for(String[] row : rows) {
-            if(checkValuesFilter(row, filter)) {
+            if(matcher.matches(rowIndex++, row)) {
             	String[] outRow = Collections.nCopies(outHeaders.length, "").toArray(String[]::new);
             	int outHeaderIndex = 0; // Header index in the output list
             	for(String header : outHeaders) {
@@ -218,9 +422,24 @@ public class TabularContainer implements SpecificContainer {
                 ret.add(outRow);
             }
         }
+        countFilterEvaluations(rowIndex);
         return ret;
     }
-    
+
+    /**
+     * Starts a query on the rows of this container. Selection, filter, order, offset and limit get evaluated in
+     * one pass when the result is retrieved, without intermediate copies of the rows.
+     *
+     * <pre>
+     * List{@literal <String[]>} firstPage = container.query().select("Name", "Land").where(filter).limit(100).toList();
+     * </pre>
+     *
+     * @return a new query on this container
+     */
+    public TabularQuery query() {
+        return new TabularQuery(this);
+    }
+
     public String getValue(String columnHeader, Filter filter) {
     	return getValue(0, columnHeader, filter);
     }
@@ -280,16 +499,7 @@ public class TabularContainer implements SpecificContainer {
      *         or null if the rows are empty.
      */
     public List<String> getColumn(String columnHeader) {
-        if (rows.isEmpty()) {
-            return new ArrayList<>();
-        }
-        rows.addFirst(headers);
-        List<String> ret = CSVUtil.getColumn(rows, columnHeader);
-        rows.removeFirst();
-        if(!ret.isEmpty()) {
-        	ret.removeFirst(); // Without header
-        }
-        return ret;
+        return CSVUtil.getColumn(rows, findColumn(columnHeader));
     }
 
     /**
@@ -301,24 +511,518 @@ public class TabularContainer implements SpecificContainer {
      * @return a list of strings containing the values from the specified column, filtered by the given criteria
      */
     public List<String> getColumn(String columnHeader, Filter filter) {
-        List<String[]> filteredRows = new ArrayList<>(getRows(filter));
-        filteredRows.addFirst(headers);
-        List<String> ret = CSVUtil.getColumn(filteredRows, columnHeader);
-        ret.removeFirst();
-        return ret;
+        return CSVUtil.getColumn(getRows(filter), findColumn(columnHeader));
     }
     
     public List<String> getColumn(String columnHeader, String filterColumn, String filterValue) {
-    	rows.addFirst(headers);
-        List<String[]> filteredRows = CSVUtil.filterData(rows, filterColumn, filterValue);
-        rows.removeFirst();
+        int filterIndex = Arrays.asList(headers).indexOf(filterColumn);
+        int columnIndex = findColumn(columnHeader);
+        List<String> ret = new ArrayList<>();
+        if (filterIndex == -1 || columnIndex == -1) {
+            return ret;
+        }
+        for (String[] row : rows) {
+            if (row.length > filterIndex && row[filterIndex].equals(filterValue) && columnIndex < row.length) {
+                ret.add(row[columnIndex]);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Like {@link #getColumnAsDoubles(String, double)} with NaN for missing values.
+     */
+    public double[] getColumnAsDoubles(String columnHeader) {
+        return getColumnAsDoubles(columnHeader, Double.NaN);
+    }
+
+    /**
+     * Retrieves the values of a column as primitive array, so they can be used for calculations without
+     * boxing them, e.g. with {@link org.opentdk.api.util.MathUtil#getPercentile(double[], double)}.
+     * The values get parsed by {@link NumberUtil#parseDouble(CharSequence, double)}.
+     *
+     * @param columnHeader The header of the column to retrieve values from, not case-sensitive.
+     * @param missing      The value to use for empty or non-numeric values.
+     * @return the values of the column in the order of the rows
+     * @throws DataContainerException If the column header is not found.
+     */
+    public double[] getColumnAsDoubles(String columnHeader, double missing) {
+        int columnIndex = requireColumn(columnHeader);
+        double[] ret = new double[rows.size()];
+        int i = 0;
+        for (String[] row : rows) {
+            if (i == ret.length) {
+                break; // Rows that got appended concurrently
+            }
+            ret[i++] = columnIndex < row.length ? NumberUtil.parseDouble(row[columnIndex], missing) : missing;
+        }
+        return i == ret.length ? ret : Arrays.copyOf(ret, i);
+    }
+
+    /**
+     * Retrieves the values of a column as primitive array. The values get parsed by
+     * {@link NumberUtil#parseLong(CharSequence, long)}.
+     *
+     * @param columnHeader The header of the column to retrieve values from, not case-sensitive.
+     * @param missing      The value to use for empty or non-integer values.
+     * @return the values of the column in the order of the rows
+     * @throws DataContainerException If the column header is not found.
+     */
+    public long[] getColumnAsLongs(String columnHeader, long missing) {
+        int columnIndex = requireColumn(columnHeader);
+        long[] ret = new long[rows.size()];
+        int i = 0;
+        for (String[] row : rows) {
+            if (i == ret.length) {
+                break; // Rows that got appended concurrently
+            }
+            ret[i++] = columnIndex < row.length ? NumberUtil.parseLong(row[columnIndex], missing) : missing;
+        }
+        return i == ret.length ? ret : Arrays.copyOf(ret, i);
+    }
+
+    /**
+     * Calculates the statistics of all numeric values of a column.
+     *
+     * @param valueColumn The header of the column with the values, not case-sensitive.
+     * @return the statistics of the numeric values. Empty and non-numeric values get ignored.
+     * @throws DataContainerException If the column header is not found.
+     */
+    public ColumnStats getColumnStats(String valueColumn) {
+        return new ColumnStats(getColumnAsDoubles(valueColumn));
+    }
 
-        filteredRows.addFirst(headers);
-        List<String> ret = CSVUtil.getColumn(filteredRows, columnHeader);
-        ret.removeFirst();
+    /**
+     * Groups the rows by the values of a key column and calculates the statistics of the numeric values
+     * of another column for each group. All groups are calculated in a single pass over the rows.
+     *
+     * <pre>
+     * Map{@literal <String, ColumnStats>} stats = container.aggregate("Transaction", "ResponseTime");
+     * stats.forEach((transaction, s) -{@literal >} System.out.println(transaction + ": " + s.getPercentile(90)));
+     * </pre>
+     *
+     * @param keyColumn   The header of the column with the group keys, not case-sensitive.
+     * @param valueColumn The header of the column with the values, not case-sensitive.
+     * @return the statistics per key in the order of the first occurrence of the key. Empty and
+     *         non-numeric values get ignored, but their key is contained.
+     * @throws DataContainerException If one of the column headers is not found.
+     */
+    public Map<String, ColumnStats> aggregate(String keyColumn, String valueColumn) {
+        int keyIndex = requireColumn(keyColumn);
+        int valueIndex = requireColumn(valueColumn);
+        Map<String, ColumnStats> ret = new LinkedHashMap<>();
+        for (String[] row : rows) {
+            if (keyIndex < row.length) {
+                ColumnStats stats = ret.computeIfAbsent(row[keyIndex], key -> new ColumnStats());
+                if (valueIndex < row.length) {
+                    stats.add(NumberUtil.parseDouble(row[valueIndex], Double.NaN));
+                }
+            }
+        }
         return ret;
     }
 
+    /**
+     * Declares the type of the values of a column. The values of a {@link EColumnType#DATE} column get parsed once
+     * by {@link DateUtil#toEpochMillis(String, long)} in the configured zone and are cached as epoch milliseconds.
+     * Afterward, filter rules with the operators DATE_AFTER, DATE_BEFORE and DATE_EQUALS compare primitive values
+     * with millisecond precision, and the column can be queried by {@link #getRowsInRange(String, String, String)}.
+     * Appended rows get parsed incrementally, other changes lead to a new parse on the next access. Rows with a value
+     * that is no date never match a date rule. {@link EColumnType#NUMBER} columns get sorted by their value, see
+     * {@link #sort(String...)}.
+     *
+     * <pre>
+     * container.declareColumnType("Timestamp", EColumnType.DATE);
+     * List{@literal <String[]>} window = container.getRowsInRange("Timestamp", "2024-05-01 08:00:00", "2024-05-01 09:00:00");
+     * </pre>
+     *
+     * @param columnHeader The header of the column, not case-sensitive.
+     * @param type         The type of the values. {@link EColumnType#STRING} removes a previous declaration.
+     * @throws DataContainerException If the column header is not found.
+     */
+    public void declareColumnType(String columnHeader, EColumnType type) {
+        int columnIndex = requireColumn(columnHeader);
+        String header = headers[columnIndex];
+        dateColumns.remove(header);
+        if (type == EColumnType.STRING) {
+            columnTypes.remove(header);
+            return;
+        }
+        columnTypes.put(header, type);
+        if (type == EColumnType.DATE) {
+            EpochColumn dateColumn = new EpochColumn();
+            dateColumns.put(header, dateColumn);
+            dateColumn.update(rows, columnIndex, modifications.get());
+        }
+    }
+
+    /**
+     * @param columnHeader The header of the column, not case-sensitive.
+     * @return the declared type of the column or {@link EColumnType#STRING} if no type was declared
+     * @throws DataContainerException If the column header is not found.
+     */
+    public EColumnType getColumnType(String columnHeader) {
+        return columnTypes.getOrDefault(headers[requireColumn(columnHeader)], EColumnType.STRING);
+    }
+
+    /**
+     * Retrieves the values of a column as epoch milliseconds. The cached values are used for a
+     * {@link EColumnType#DATE} column, other columns get parsed with every call.
+     *
+     * @param columnHeader The header of the column to retrieve values from, not case-sensitive.
+     * @param missing      The value to use for empty values or values that are no date.
+     * @return the values of the column in the order of the rows
+     * @throws DataContainerException If the column header is not found.
+     */
+    public long[] getColumnAsEpochMillis(String columnHeader, long missing) {
+        int columnIndex = requireColumn(columnHeader);
+        EpochColumn dateColumn = dateColumns.get(headers[columnIndex]);
+        if (dateColumn != null) {
+            EpochColumn.Snapshot epochs = dateColumn.update(rows, columnIndex, modifications.get());
+            long[] ret = Arrays.copyOf(epochs.millis(), epochs.size());
+            if (missing != EpochColumn.MISSING) {
+                for (int i = 0; i < ret.length; i++) {
+                    if (ret[i] == EpochColumn.MISSING) {
+                        ret[i] = missing;
+                    }
+                }
+            }
+            return ret;
+        }
+        long[] ret = new long[rows.size()];
+        int i = 0;
+        for (String[] row : rows) {
+            if (i == ret.length) {
+                break; // Rows that got appended concurrently
+            }
+            ret[i++] = columnIndex < row.length ? DateUtil.toEpochMillis(row[columnIndex], missing) : missing;
+        }
+        return i == ret.length ? ret : Arrays.copyOf(ret, i);
+    }
+
+    /**
+     * Retrieves the rows with a date between two instants by a sorted index of the column. The index gets
+     * built on first use and after changes of the rows.
+     *
+     * @param dateColumn The header of a column that was declared as {@link EColumnType#DATE}, not case-sensitive.
+     * @param from       The first date, time or time stamp to include in any format supported by the DateUtil.
+     * @param to         The last date, time or time stamp to include.
+     * @return the matching rows in ascending order of their dates. Rows with the same date keep their order.
+     * @throws DataContainerException If the column header is not found or the column is not declared as DATE.
+     * @throws java.time.DateTimeException If one of the bounds is no supported date.
+     */
+    public List<String[]> getRowsInRange(String dateColumn, String from, String to) {
+        List<String[]> ret = new ArrayList<>();
+        for (int rowIndex : getRowsIndexesInRange(dateColumn, from, to)) {
+            ret.add(rows.get(rowIndex));
+        }
+        return ret;
+    }
+
+    /**
+     * Like {@link #getRowsInRange(String, String, String)}, but returns the row indexes.
+     *
+     * @param dateColumn The header of a column that was declared as {@link EColumnType#DATE}, not case-sensitive.
+     * @param from       The first date, time or time stamp to include in any format supported by the DateUtil.
+     * @param to         The last date, time or time stamp to include.
+     * @return the indexes of the matching rows in ascending order of their dates
+     * @throws DataContainerException If the column header is not found or the column is not declared as DATE.
+     * @throws java.time.DateTimeException If one of the bounds is no supported date.
+     */
+    public int[] getRowsIndexesInRange(String dateColumn, String from, String to) {
+        int columnIndex = requireColumn(dateColumn);
+        EpochColumn epochColumn = dateColumns.get(headers[columnIndex]);
+        if (epochColumn == null) {
+            throw new DataContainerException("Column '" + dateColumn + "' is not declared as " + EColumnType.DATE);
+        }
+        long fromMillis = DateUtil.retrieveZonedDateTime(DateUtil.retrieveTemporal(from)).toInstant().toEpochMilli();
+        long toMillis = DateUtil.retrieveZonedDateTime(DateUtil.retrieveTemporal(to)).toInstant().toEpochMilli();
+        return epochColumn.range(epochColumn.update(rows, columnIndex, modifications.get()), fromMillis, toMillis);
+    }
+
+    /**
+     * Sorts the rows in ascending order by the given columns. Numbers and dates are compared by their value, other
+     * values as strings. The type of a column is taken from {@link #declareColumnType(String, EColumnType)}. An
+     * undeclared column is sorted as numbers if all its non-empty values are numbers. The values get converted once
+     * before sorting, and the sort is stable. Empty values and values that do not fit the type are sorted last.
+     *
+     * @param columns The headers of the columns to sort by in the order of their priority, not case-sensitive.
+     * @throws DataContainerException If a column header is not found.
+     */
+    public void sort(String... columns) {
+        sort(false, columns);
+    }
+
+    /**
+     * Like {@link #sort(String...)}, but sorts the largest values first.
+     *
+     * @param columns The headers of the columns to sort by in the order of their priority, not case-sensitive.
+     * @throws DataContainerException If a column header is not found.
+     */
+    public void sortDescending(String... columns) {
+        sort(true, columns);
+    }
+
+    private void sort(boolean descending, String[] columns) {
+        String[][] snapshot = rows.toArray(String[][]::new);
+        RowOrder order = createOrder(snapshot, columns, descending);
+        int[] sorted = RowOrder.sort(snapshot.length, order.comparator(snapshot, createKeys(order, snapshot, columns, null)));
+        modifications.incrementAndGet();
+        int[] rowIndex = { 0 }; // replaceAll processes the rows in their order
+        rows.replaceAll(row -> {
+            int i = rowIndex[0]++;
+            return i < sorted.length ? snapshot[sorted[i]] : row;
+        });
+    }
+
+    /**
+     * Retrieves the rows with the largest values of a column without sorting the whole container. The rows are
+     * selected by a heap of the size <code>n</code>, so the container stays unchanged. The column type gets
+     * handled like by {@link #sort(String...)}.
+     *
+     * @param column The header of the column to rank by, not case-sensitive.
+     * @param n      The maximum number of rows to retrieve.
+     * @return the rows with the largest values in descending order. Rows with the same value keep their order.
+     * @throws DataContainerException If the column header is not found.
+     */
+    public List<String[]> topN(String column, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of rows must not be negative");
+        }
+        String[][] snapshot = rows.toArray(String[][]::new);
+        String[] columns = { column };
+        RowOrder order = createOrder(snapshot, columns, true);
+        List<String[]> ret = new ArrayList<>();
+        for (int rowIndex : RowOrder.top(snapshot.length, n, order.comparator(snapshot, createKeys(order, snapshot, columns, null)))) {
+            ret.add(snapshot[rowIndex]);
+        }
+        return ret;
+    }
+
+    /**
+     * Sorts a delimited file that is too large for the memory, like {@link #sort(String...)} does for a container.
+     * The rows get sorted in chunks that are written as temporary files into the directory of the target file.
+     * Afterward, the chunks are merged into the target file. Since the column types cannot be declared, they get
+     * detected by the first chunk.
+     *
+     * <pre>
+     * TabularContainer.sortFile(Paths.get("results.csv"), Paths.get("ranking.csv"), ";", 1_000_000, true, "Score");
+     * </pre>
+     *
+     * @param sourceFile      The file to sort. The first row has to contain the headers.
+     * @param targetFile      The file to write the sorted rows into, including the headers.
+     * @param delimiter       The delimiter of the values in both files.
+     * @param maxRowsInMemory The maximum number of rows that get sorted in memory at once.
+     * @param descending      true to sort the largest values first.
+     * @param columns         The headers of the columns to sort by in the order of their priority, not case-sensitive.
+     * @throws IOException If reading or writing a file fails.
+     * @throws DataContainerException If a column header is not found.
+     */
+    public static void sortFile(Path sourceFile, Path targetFile, String delimiter, int maxRowsInMemory, boolean descending, String... columns) throws IOException {
+        ExternalMergeSort.sort(sourceFile, targetFile, delimiter, maxRowsInMemory, descending, columns);
+    }
+
+    /**
+     * Joins the rows of this container with the rows of another container by key columns with the same names.
+     * Like {@link #join(TabularContainer, String[], String[], EJoinType)}.
+     *
+     * <pre>
+     * TabularContainer report = results.join(requirements, EJoinType.LEFT, "RequirementID");
+     * </pre>
+     *
+     * @param right      The container to join with.
+     * @param type       The join operation.
+     * @param keyColumns The headers of the key columns in both containers, not case-sensitive.
+     * @return a new container with the joined rows
+     * @throws DataContainerException If a key column is not found.
+     */
+    public TabularContainer join(TabularContainer right, EJoinType type, String... keyColumns) {
+        return join(right, keyColumns, keyColumns, type);
+    }
+
+    /**
+     * Joins the rows of this container with the rows of another container. Rows match if all their key values are
+     * equal. Rows with a missing key value never match. The right container gets loaded into a hash table that is
+     * probed with each row of this container, or both containers are combined in one pass if they are already sorted
+     * by their keys. So the join takes linear time instead of comparing each pair of rows.
+     * <p>
+     * The result contains the columns of this container followed by the columns of the right container without its
+     * key columns. Right headers that already exist get a number, e.g. <code>Name_2</code>. The rows keep the order
+     * of this container.
+     *
+     * @param right     The container to join with.
+     * @param leftKeys  The headers of the key columns in this container, not case-sensitive.
+     * @param rightKeys The headers of the key columns in the right container in the same order, not case-sensitive.
+     * @param type      The join operation.
+     * @return a new container with the joined rows
+     * @throws DataContainerException If a key column is not found.
+     * @throws IllegalArgumentException If the number of key columns differs or is zero.
+     */
+    public TabularContainer join(TabularContainer right, String[] leftKeys, String[] rightKeys, EJoinType type) {
+        if (leftKeys.length == 0 || leftKeys.length != rightKeys.length) {
+            throw new IllegalArgumentException("Both sides need the same number of key columns");
+        }
+        int[] leftIndexes = new int[leftKeys.length];
+        int[] rightIndexes = new int[rightKeys.length];
+        for (int i = 0; i < leftKeys.length; i++) {
+            leftIndexes[i] = requireColumn(leftKeys[i]);
+            rightIndexes[i] = right.requireColumn(rightKeys[i]);
+        }
+        return TableJoin.join(this, right, leftIndexes, rightIndexes, type);
+    }
+
+    /**
+     * Groups the rows by the values of key columns and aggregates the values of each group in one pass. The values
+     * get accumulated in primitive fields instead of collecting them, except for percentiles and distinct counts.
+     * Large containers get split into partitions that are aggregated in parallel and merged afterward.
+     *
+     * <pre>
+     * TabularContainer summary = results.groupBy(new String[] { "Transaction" },
+     *         Aggregation.count().as("Runs"), Aggregation.avg("Duration"), Aggregation.percentile("Duration", 90));
+     * </pre>
+     *
+     * @param keyColumns   The headers of the key columns, not case-sensitive.
+     * @param aggregations The aggregated columns of the result.
+     * @return a new container with the key columns followed by one column per aggregation and one row per group in
+     *         the order of the first row of the group. Missing key values form a group with an empty value. Empty and
+     *         non-numeric values get ignored by the numeric aggregations, which are empty for groups without values.
+     * @throws DataContainerException If a column header is not found.
+     */
+    public TabularContainer groupBy(String[] keyColumns, Aggregation... aggregations) {
+        return createGroupBy(keyColumns, aggregations).toContainer(Arrays.stream(keyColumns).map(column -> headers[requireColumn(column)]).toArray(String[]::new));
+    }
+
+    /**
+     * Aggregates the values by the values of two columns and arranges them as a matrix, e.g. the number of
+     * failed test cases per test suite and day.
+     *
+     * <pre>
+     * TabularContainer matrix = results.pivot("Suite", "Date", Aggregation.count("Failed"));
+     * </pre>
+     *
+     * @param rowColumn   The header of the column whose values become the rows, not case-sensitive.
+     * @param pivotColumn The header of the column whose values become the columns, not case-sensitive.
+     * @param aggregation The aggregation of each cell.
+     * @return a new container with the row column followed by one column per value of the pivot column. Rows and
+     *         columns are in the order of their first occurrence. Cells without rows are 0 for counts and empty otherwise.
+     * @throws DataContainerException If a column header is not found.
+     */
+    public TabularContainer pivot(String rowColumn, String pivotColumn, Aggregation aggregation) {
+        Map<Object, String[]> groups = createGroupBy(new String[] { rowColumn, pivotColumn }, new Aggregation[] { aggregation }).aggregate();
+        Map<String, Integer> pivotIndexes = new LinkedHashMap<>();
+        Map<String, String[]> matrix = new LinkedHashMap<>();
+        for (Object key : groups.keySet()) {
+            String[] values = GroupBy.keyValues(key);
+            pivotIndexes.putIfAbsent(values[1], pivotIndexes.size() + 1);
+            matrix.putIfAbsent(values[0], null);
+        }
+        String empty = aggregation.getFunction() == EAggregate.COUNT || aggregation.getFunction() == EAggregate.DISTINCT_COUNT ? "0" : "";
+        for (String rowValue : matrix.keySet()) {
+            String[] row = new String[pivotIndexes.size() + 1];
+            Arrays.fill(row, empty);
+            row[0] = rowValue;
+            matrix.put(rowValue, row);
+        }
+        for (Map.Entry<Object, String[]> group : groups.entrySet()) {
+            String[] values = GroupBy.keyValues(group.getKey());
+            matrix.get(values[0])[pivotIndexes.get(values[1])] = group.getValue()[0];
+        }
+        String[] resultHeaders = new String[pivotIndexes.size() + 1];
+        resultHeaders[0] = headers[requireColumn(rowColumn)];
+        pivotIndexes.forEach((value, index) -> resultHeaders[index] = value);
+        TabularContainer ret = TabularContainer.newInstance();
+        ret.initHeaders(resultHeaders);
+        ret.replaceRows(new ArrayList<>(matrix.values()));
+        return ret;
+    }
+
+    private GroupBy createGroupBy(String[] keyColumns, Aggregation[] aggregations) {
+        if (keyColumns.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required");
+        }
+        int[] keyIndexes = new int[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            keyIndexes[i] = requireColumn(keyColumns[i]);
+        }
+        int[] valueIndexes = new int[aggregations.length];
+        for (int a = 0; a < aggregations.length; a++) {
+            valueIndexes[a] = aggregations[a].getColumn() == null ? -1 : requireColumn(aggregations[a].getColumn());
+        }
+        return new GroupBy(rows.toArray(String[][]::new), keyIndexes, aggregations, valueIndexes);
+    }
+
+    RowOrder createOrder(String[][] snapshot, String[] columns, boolean descending) {
+        int[] indexes = new int[columns.length];
+        EColumnType[] types = new EColumnType[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            indexes[c] = requireColumn(columns[c]);
+            types[c] = columnTypes.get(headers[indexes[c]]);
+            if (types[c] == null) {
+                types[c] = RowOrder.detectType(Arrays.asList(snapshot), indexes[c]);
+            }
+        }
+        return new RowOrder(indexes, types, descending);
+    }
+
+    /**
+     * Builds the sort keys and takes the cached values of DATE columns instead of parsing them again.
+     *
+     * @param rowIndexes the row index of each row of the snapshot or null if the snapshot contains all rows
+     */
+    long[][] createKeys(RowOrder order, String[][] snapshot, String[] columns, int[] rowIndexes) {
+        long[][] cached = new long[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            int columnIndex = requireColumn(columns[c]);
+            EpochColumn dateColumn = dateColumns.get(headers[columnIndex]);
+            if (dateColumn != null) {
+                EpochColumn.Snapshot epochs = dateColumn.update(rows, columnIndex, modifications.get());
+                if (rowIndexes == null) {
+                    if (epochs.size() == snapshot.length) {
+                        cached[c] = epochs.millis();
+                    }
+                } else if (snapshot.length == 0 || rowIndexes[snapshot.length - 1] < epochs.size()) {
+                    // The row indexes are ascending, so all rows are cached if the last one is
+                    cached[c] = new long[snapshot.length];
+                    for (int i = 0; i < snapshot.length; i++) {
+                        cached[c][i] = epochs.get(rowIndexes[i]);
+                    }
+                }
+            }
+        }
+        return order.keys(snapshot, cached);
+    }
+
+    /**
+     * Like {@link #findColumn(String)} but fails if the column does not exist.
+     *
+     * @param columnHeader the header name of the column
+     * @return the index of the first matching column
+     * @throws DataContainerException If the column header is not found.
+     */
+    int requireColumn(String columnHeader) {
+        int columnIndex = findColumn(columnHeader);
+        if (columnIndex == -1) {
+            throw new DataContainerException("Column '" + columnHeader + "' not found.");
+        }
+        return columnIndex;
+    }
+
+    /**
+     * Searches the index of a column by its header name, ignoring the case.
+     *
+     * @param columnHeader the header name of the column
+     * @return the index of the first matching column or -1 if no header matches
+     */
+    private int findColumn(String columnHeader) {
+        String[] currentHeaders = headers;
+        for (int i = 0; i < currentHeaders.length; i++) {
+            if (currentHeaders[i].equalsIgnoreCase(columnHeader)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Adds a new row to the CSV data container. The provided row is converted
      * into an array of strings before being added to the internal storage.
@@ -358,9 +1062,22 @@ public class TabularContainer implements SpecificContainer {
      *                    column (if it already exists) instead of creating a new one.
      */
     public void addColumn(String column, boolean useExisting) {
-        rows.addFirst(headers);
-        CSVUtil.addColumn(rows, headerMap, column, useExisting);
-        rows.removeFirst();
+        if (headerMap.containsKey(column) && useExisting) {
+            return;
+        }
+        String newColumn = column;
+        int count = 2;
+        while (headerMap.containsKey(newColumn)) {
+            newColumn = column + "_" + count;
+            count++;
+        }
+        headerMap.put(newColumn, headerMap.size());
+        modifications.incrementAndGet();
+        rows.replaceAll(row -> {
+            String[] newRow = Arrays.copyOf(row, row.length + 1);
+            newRow[newRow.length - 1] = "";
+            return newRow;
+        });
         mergeHeaderMapWithHeader();
     }
 
@@ -373,9 +1090,50 @@ public class TabularContainer implements SpecificContainer {
      * @param newValue The new value to replace the old value in the specified column.
      */
     public void setValue(String updateColumn, String oldValue, String newValue) {
-        rows.addFirst(headers);
-        CSVUtil.updateRow(rows, updateColumn, oldValue, newValue);
-        rows.removeFirst();
+        int columnIndex = findColumn(updateColumn);
+        if (columnIndex == -1) {
+            return;
+        }
+        int rowIndex = 0;
+        for (String[] row : rows) {
+            if (row[columnIndex].equalsIgnoreCase(oldValue)) {
+                String[] updated = row.clone();
+                updated[columnIndex] = newValue;
+                storeRow(rowIndex, updated);
+                modifications.incrementAndGet();
+                break; // Assume that there is only one hit
+            }
+            rowIndex++;
+        }
+    }
+
+    /**
+     * Converts all values of a date column into another format in a single pass by
+     * {@link DateUtil#convertAll(List, String, boolean)}. The input format gets detected once by the first value.
+     *
+     * @param columnHeader The header of the column to convert, not case-sensitive.
+     * @param outFormat    The preferred date/time format e.g. yyyyMMdd.
+     * @param parallel     true to convert the values on all available processors, which pays off for large tables
+     * @throws DataContainerException If the column header is not found.
+     */
+    public void convertDateColumn(String columnHeader, String outFormat, boolean parallel) {
+        int columnIndex = requireColumn(columnHeader);
+        List<String> values = new ArrayList<>(rows.size());
+        for (String[] row : rows) {
+            values.add(columnIndex < row.length ? row[columnIndex] : null);
+        }
+        List<String> converted = DateUtil.convertAll(values, outFormat, parallel);
+        modifications.incrementAndGet();
+        int[] rowIndex = { 0 }; // replaceAll processes the rows in their order
+        rows.replaceAll(row -> {
+            int i = rowIndex[0]++;
+            if (columnIndex >= row.length || i >= converted.size()) {
+                return row; // Short row or appended after the conversion
+            }
+            String[] newRow = row.clone();
+            newRow[columnIndex] = converted.get(i);
+            return newRow;
+        });
     }
 
     /**
@@ -386,15 +1144,18 @@ public class TabularContainer implements SpecificContainer {
      * @throws DataContainerException If the length of updateRow does not match the length of the row being updated.
      */
     public void setRow(String[] updateRow, Filter filter) {
-        rows.addFirst(headers);
-        String[] targetRow = getRow(filter);
-        if(targetRow.length != updateRow.length) {
-            throw new DataContainerException("Old row and new row do not have the same length in setRow");
-        }
-        for(int i = 0; i < targetRow.length; i++) {
-            CSVUtil.updateRow(rows, headers[i], targetRow[i], updateRow[i]);
+        RowMatcher matcher = compileFilter(filter);
+        int rowIndex = 0;
+        for (String[] row : rows) {
+            if (matcher.matches(rowIndex, row)) {
+                countFilterEvaluations(rowIndex + 1);
+                setRow(rowIndex, updateRow);
+                return;
+            }
+            rowIndex++;
         }
-        rows.removeFirst();
+        countFilterEvaluations(rowIndex);
+        throw new DataContainerException("No row matches the filter in setRow");
     }
 
     /**
@@ -405,15 +1166,12 @@ public class TabularContainer implements SpecificContainer {
      * @throws DataContainerException If the length of updateRow does not match the length of the row being updated.
      */
     public void setRow(int index, String[] updateRow) {
-        rows.addFirst(headers);
         String[] targetRow = getRow(index);
         if(targetRow.length != updateRow.length) {
             throw new DataContainerException("Old row and new row do not have the same length in setRow");
         }
-        for(int i = 0; i < targetRow.length; i++) {
-            CSVUtil.updateRow(rows, headers[i], targetRow[i], updateRow[i]);
-        }
-        rows.removeFirst();
+        storeRow(index, updateRow.clone());
+        modifications.incrementAndGet();
     }
 
     /**
@@ -434,6 +1192,7 @@ public class TabularContainer implements SpecificContainer {
      */
     public void deleteRow(int index) {
         rows.remove(index);
+        modifications.incrementAndGet();
     }
 
     /**
@@ -442,24 +1201,15 @@ public class TabularContainer implements SpecificContainer {
      * @param filter The {@link Filter} object containing the conditions to identify the rows to be deleted.
      */
     public void deleteRows(Filter filter) {
-        int[] indexes = getRowsIndexes(filter);
-        for (int index : indexes) {
-            rows.remove(index);
+        RowMatcher matcher = compileFilter(filter);
+        int[] rowIndex = { 0 }; // removeIf tests the rows in their order
+        boolean removed = rows.removeIf(row -> matcher.matches(rowIndex[0]++, row));
+        countFilterEvaluations(rowIndex[0]);
+        if (removed) {
+            modifications.incrementAndGet();
         }
     }
 
-    /**
-     * Generates a list of rows including the header row as the first entry.
-     *
-     * @return A list of String arrays where the first entry is the header row and the following entries are the data rows.
-     */
-    private List<String[]> getRowsWithHeader() {
-        List<String[]> ret = new ArrayList<>();
-        ret.add(headers);
-        ret.addAll(rows);
-        return ret;
-    }
-
     /**
      * Merges the header map with the header array, positioning headers in their respective
      * indices as specified in the headerMap. The resulting array, `headers`, will have null
@@ -490,15 +1240,19 @@ public class TabularContainer implements SpecificContainer {
      *         If no row matches the filter, returns an empty array.
      */
     public int[] getRowsIndexes(Filter filter) {
+        RowMatcher matcher = compileFilter(filter);
         StringBuilder indexBuffer = new StringBuilder();
-        for (int i = 0; i < rows.size(); i++) {
-            if (checkValuesFilter(rows.get(i), filter)) {
+        int i = 0;
+        for (String[] row : rows) {
+            if (matcher.matches(i, row)) {
                 if (!indexBuffer.isEmpty()) {
                     indexBuffer.append(";");
                 }
                 indexBuffer.append(i);
             }
+            i++;
         }
+        countFilterEvaluations(i);
         if (!indexBuffer.isEmpty()) {
             return Arrays.stream(indexBuffer.toString().split(";")).mapToInt(Integer::parseInt).toArray();
         } else {
@@ -507,36 +1261,92 @@ public class TabularContainer implements SpecificContainer {
     }
 
     /**
-     * Checks if the filter rules match to the values of the given data set.
+     * Adds the rows that a scan checked against a compiled filter to <code>filter.evaluations</code> in the
+     * {@link MetricsRegistry#getDefault() default registry}.
      *
-     * @param values String array with all values of a defined data set (row).
-     * @param filter   Object of type {@link Filter}, which includes one or more filter rules
-     * @return true = values match to the filter; false = values don't match to the filter
+     * @param rowsChecked the number of rows that were passed to the matcher
      */
-    private boolean checkValuesFilter(String[] values, Filter filter)  {
-        boolean returnCode = false;
-        if (filter.getFilterRules().isEmpty()) {
-            returnCode = true; // No filter defined
-        } else {
-            for (FilterRule fr : filter.getFilterRules()) {
-                // Wild cards * and % will accept any value
-                if (fr.getValue() != null) {
-                    if ((fr.getValue().equals("*")) || (fr.getValue().equals("%"))) {
-                        returnCode = true;
-                        break;
-                    }
-                }
-                // check values against the filter rules
-                returnCode = fr.checkValue(values[headerMap.get(fr.getHeaderName())]);
-                if (!returnCode) {
+    static void countFilterEvaluations(int rowsChecked) {
+        FILTER_EVALUATIONS.add(rowsChecked);
+    }
+
+    /**
+     * Compiles the rules of a filter into a matcher for the rows. Rules on {@link EColumnType#DATE} columns with the
+     * operators DATE_AFTER, DATE_BEFORE and DATE_EQUALS compare the cached epoch values of the rows, so neither the
+     * row values nor the filter values get parsed per row. Rules with numeric operators are checked by
+     * {@link FilterRule#checkNumber(CharSequence)}, all other rules by {@link FilterRule#checkValue(String)}.
+     *
+     * @param filter Object of type {@link Filter}, which includes one or more filter rules
+     * @return the matcher that returns true if a row matches all rules
+     */
+    RowMatcher compileFilter(Filter filter) {
+        List<RowMatcher> checks = new ArrayList<>();
+        for (FilterRule fr : filter.getFilterRules()) {
+            // Wild cards * and % will accept any value and skip the remaining rules
+            if ("*".equals(fr.getValue()) || "%".equals(fr.getValue())) {
+                break;
+            }
+            checks.add(compileRule(fr));
+        }
+        RowMatcher[] matchers = checks.toArray(RowMatcher[]::new);
+        return (rowIndex, row) -> {
+            for (RowMatcher matcher : matchers) {
+                if (!matcher.matches(rowIndex, row)) {
                     // skip check and return false, in case that one of the rules fails
-                    break;
+                    return false;
                 }
             }
+            return true;
+        };
+    }
+
+    private RowMatcher compileRule(FilterRule fr) {
+        Integer index = headerMap.get(fr.getHeaderName());
+        if (index == null) {
+            return (rowIndex, row) -> {
+                throw new DataContainerException("Column '" + fr.getHeaderName() + "' not found.");
+            };
         }
-        return returnCode;
+        int columnIndex = index;
+        EpochColumn dateColumn = dateColumns.get(fr.getHeaderName());
+        EOperator operator = fr.getFilterOperator();
+        if (dateColumn != null && (operator == EOperator.DATE_AFTER || operator == EOperator.DATE_BEFORE || operator == EOperator.DATE_EQUALS)) {
+            long[] targets = new long[fr.getValues().length];
+            boolean valid = true;
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = DateUtil.toEpochMillis(fr.getValues()[i], EpochColumn.MISSING);
+                valid &= targets[i] != EpochColumn.MISSING;
+            }
+            // Invalid filter values are left to the rule, which reports them like before
+            if (valid) {
+                EpochColumn.Snapshot epochs = dateColumn.update(rows, columnIndex, modifications.get());
+                return (rowIndex, row) -> {
+                    // Rows appended after the compilation are not cached yet
+                    long value = rowIndex < epochs.size() ? epochs.get(rowIndex) : DateUtil.toEpochMillis(row[columnIndex], EpochColumn.MISSING);
+                    return value != EpochColumn.MISSING && matchesDate(operator, value, targets);
+                };
+            }
+        }
+        if (fr.isNumeric()) {
+            return (rowIndex, row) -> fr.checkNumber(row[columnIndex]);
+        }
+        return (rowIndex, row) -> fr.checkValue(row[columnIndex]);
     }
-    
+
+    private static boolean matchesDate(EOperator operator, long value, long[] targets) {
+        for (long target : targets) {
+            boolean match = switch (operator) {
+                case DATE_AFTER -> value > target;
+                case DATE_BEFORE -> value < target;
+                default -> value == target;
+            };
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void initHeaders(String[] headers) {
 		this.headers = headers;
 		int headerIndex = 0;
@@ -0,0 +1,261 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.exception.DataContainerException;
+import org.opentdk.api.filter.Filter;
+import org.opentdk.api.filter.FilterExpression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Query on the rows of a {@link TabularContainer} that is built step by step and evaluated lazily when the
+ * result is retrieved. All steps are fused into a single pass over the rows: each row gets checked against the
+ * compiled filter and projected to the selected columns right away, and the pass stops as soon as the limit is
+ * reached. With an order, only the matching rows get ranked, and a limit selects the first rows by a bounded
+ * heap instead of sorting all of them. The container stays unchanged.
+ *
+ * <pre>
+ * Filter failed = new Filter();
+ * failed.addFilterRule("Result", "failed", EOperator.EQUALS);
+ * List{@literal <String[]>} page = container.query().select("Test", "Duration").where(failed)
+ *         .orderByDescending("Duration").offset(100).limit(100).toList();
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class TabularQuery {
+
+    private final TabularContainer container;
+
+    /**
+     * The headers of the selected columns or null for all columns.
+     */
+    private String[] columns;
+
+    private Filter filter;
+
+    private FilterExpression expression;
+
+    /**
+     * The headers of the columns to order by or null to keep the order of the container.
+     */
+    private String[] orderColumns;
+
+    private boolean descending;
+
+    private int offset;
+
+    private int limit = Integer.MAX_VALUE;
+
+    TabularQuery(TabularContainer container) {
+        this.container = container;
+    }
+
+    /**
+     * @param columns the headers of the columns of the result in their order, not case-sensitive
+     * @return this query
+     */
+    public TabularQuery select(String... columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * @param filter the filter that the rows of the result have to match
+     * @return this query
+     */
+    public TabularQuery where(Filter filter) {
+        this.filter = filter;
+        this.expression = null;
+        return this;
+    }
+
+    /**
+     * @param expression the condition that the rows of the result have to match in the syntax of an SQL WHERE
+     *                   clause, see {@link FilterExpression}
+     * @return this query
+     * @throws IllegalArgumentException If the expression has a syntax error.
+     */
+    public TabularQuery where(String expression) {
+        this.expression = FilterExpression.parse(expression);
+        this.filter = null;
+        return this;
+    }
+
+    /**
+     * Orders the result in ascending order like {@link TabularContainer#sort(String...)}.
+     *
+     * @param columns the headers of the columns to order by, in the order of their priority, not case-sensitive
+     * @return this query
+     */
+    public TabularQuery orderBy(String... columns) {
+        this.orderColumns = columns;
+        this.descending = false;
+        return this;
+    }
+
+    /**
+     * Orders the result in descending order like {@link TabularContainer#sortDescending(String...)}.
+     *
+     * @param columns the headers of the columns to order by, in the order of their priority, not case-sensitive
+     * @return this query
+     */
+    public TabularQuery orderByDescending(String... columns) {
+        this.orderColumns = columns;
+        this.descending = true;
+        return this;
+    }
+
+    /**
+     * @param offset the number of matching rows to skip
+     * @return this query
+     */
+    public TabularQuery offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * @param limit the maximum number of rows of the result
+     * @return this query
+     */
+    public TabularQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Evaluates the query.
+     *
+     * @return the rows of the result. Without a selection, these are the rows of the container like by
+     *         {@link TabularContainer#getRows(Filter)}, otherwise new arrays with the selected values.
+     * @throws DataContainerException If a column header is not found.
+     * @throws IllegalArgumentException If a column of the filter expression is not found.
+     */
+    public List<String[]> toList() {
+        int[] projection = null;
+        if (columns != null) {
+            projection = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                projection[i] = container.requireColumn(columns[i]);
+            }
+        }
+        return orderColumns == null ? scan(projection) : rank(projection);
+    }
+
+    /**
+     * Evaluates the query into a new container.
+     *
+     * @return a new container with the selected columns and the rows of the result, which can be changed
+     *         independently of this container
+     * @throws DataContainerException If a column header is not found.
+     */
+    public TabularContainer toContainer() {
+        String[] headers = container.getHeaders();
+        String[] resultHeaders = headers.clone();
+        if (columns != null) {
+            resultHeaders = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                resultHeaders[i] = headers[container.requireColumn(columns[i])];
+            }
+        }
+        List<String[]> result = toList();
+        if (columns == null) {
+            result.replaceAll(String[]::clone);
+        }
+        TabularContainer ret = TabularContainer.newInstance();
+        ret.initHeaders(resultHeaders);
+        ret.replaceRows(result);
+        return ret;
+    }
+
+    /**
+     * Filters and projects the rows in the order of the container and stops at the limit.
+     */
+    private List<String[]> scan(int[] projection) {
+        TabularContainer.RowMatcher matcher = compileCondition();
+        List<String[]> ret = new ArrayList<>(Math.min(limit, 1024));
+        int skip = offset;
+        int rowIndex = 0;
+        for (String[] row : container.getRows()) {
+            if (ret.size() >= limit) {
+                break;
+            }
+            if (matcher == null || matcher.matches(rowIndex, row)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    ret.add(project(row, projection));
+                }
+            }
+            rowIndex++;
+        }
+        if (matcher != null) {
+            TabularContainer.countFilterEvaluations(rowIndex);
+        }
+        return ret;
+    }
+
+    /**
+     * Collects the matching rows, orders them and projects the requested range.
+     */
+    private List<String[]> rank(int[] projection) {
+        TabularContainer.RowMatcher matcher = compileCondition();
+        List<String[]> matches = new ArrayList<>();
+        int[] rowIndexes = new int[16];
+        int rowIndex = 0;
+        for (String[] row : container.getRows()) {
+            if (matcher == null || matcher.matches(rowIndex, row)) {
+                if (matches.size() == rowIndexes.length) {
+                    rowIndexes = Arrays.copyOf(rowIndexes, rowIndexes.length * 2);
+                }
+                rowIndexes[matches.size()] = rowIndex;
+                matches.add(row);
+            }
+            rowIndex++;
+        }
+        if (matcher != null) {
+            TabularContainer.countFilterEvaluations(rowIndex);
+        }
+        String[][] rows = matches.toArray(String[][]::new);
+        RowOrder order = container.createOrder(rows, orderColumns, descending);
+        RowOrder.IndexComparator comparator = order.comparator(rows, container.createKeys(order, rows, orderColumns, rowIndexes));
+        long end = Math.min((long) offset + limit, rows.length);
+        int[] ordered = end < rows.length ? RowOrder.top(rows.length, (int) end, comparator) : RowOrder.sort(rows.length, comparator);
+        List<String[]> ret = new ArrayList<>();
+        for (int i = offset; i < end; i++) {
+            ret.add(project(rows[ordered[i]], projection));
+        }
+        return ret;
+    }
+
+    /**
+     * @return the matcher of the filter or the filter expression or null if all rows match
+     */
+    private TabularContainer.RowMatcher compileCondition() {
+        if (expression != null) {
+            Predicate<String[]> predicate = expression.compile(container.getHeaders());
+            return (rowIndex, row) -> predicate.test(row);
+        }
+        return filter == null ? null : container.compileFilter(filter);
+    }
+
+    private static String[] project(String[] row, int[] projection) {
+        if (projection == null) {
+            return row;
+        }
+        String[] ret = new String[projection.length];
+        for (int i = 0; i < projection.length; i++) {
+            ret[i] = projection[i] < row.length ? row[projection[i]] : "";
+        }
+        return ret;
+    }
+}
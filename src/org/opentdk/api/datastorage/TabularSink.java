@@ -0,0 +1,262 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.util.CSVUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only sink that writes rows from any number of threads into a CSV file. Each producer thread
+ * appends into its own buffer of pre-sized chunks, so producers never block on each other or on disk
+ * I/O. A background thread periodically drains all buffers and writes the rows through the
+ * {@link CSVUtil} writer. The order of the rows is kept per thread, rows of different threads get
+ * interleaved in the order they are drained.
+ *
+ * <pre>
+ * TabularContainer results = DataContainer.newCSVContainer().tabInstance();
+ * results.initHeaders(new String[] { "Step", "Result" });
+ * try (TabularSink sink = results.openSink(Paths.get("results.csv"), Duration.ofSeconds(1))) {
+ *     // Any thread
+ *     sink.addRow("Login", "passed");
+ * }
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class TabularSink implements Closeable {
+
+    /**
+     * Number of rows that fit into one chunk of a producer buffer.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Fixed-size block of rows. Only the owner thread writes into a chunk, only the flusher reads it.
+     */
+    private static final class Chunk {
+        private final String[][] rows = new String[CHUNK_SIZE][];
+        /**
+         * Number of rows that are completely written and visible to the flusher.
+         */
+        private volatile int count;
+        private volatile Chunk next;
+    }
+
+    /**
+     * Single-producer single-consumer buffer of one thread.
+     */
+    private static final class Buffer {
+        private final Thread owner = Thread.currentThread();
+        /**
+         * Chunk the owner thread appends to.
+         */
+        private Chunk tail = new Chunk();
+        /**
+         * Chunk the flusher reads from and the number of rows it already consumed.
+         */
+        private Chunk head = tail;
+        private int consumed;
+
+        private void add(String[] row) {
+            Chunk chunk = tail;
+            int index = chunk.count;
+            if (index == CHUNK_SIZE) {
+                Chunk newChunk = new Chunk();
+                chunk.next = newChunk;
+                tail = newChunk;
+                chunk = newChunk;
+                index = 0;
+            }
+            chunk.rows[index] = row;
+            chunk.count = index + 1; // Publishes the row to the flusher
+        }
+
+        /**
+         * @return the number of rows that were written
+         */
+        private int drain(Writer writer, String delimiter) throws IOException {
+            int ret = 0;
+            while (true) {
+                Chunk chunk = head;
+                int count = chunk.count;
+                for (int i = consumed; i < count; i++) {
+                    CSVUtil.writeRow(writer, chunk.rows[i], delimiter);
+                    chunk.rows[i] = null;
+                }
+                ret += count - consumed;
+                consumed = count;
+                Chunk next = chunk.next;
+                if (count < CHUNK_SIZE || next == null) {
+                    return ret;
+                }
+                head = next;
+                consumed = 0;
+            }
+        }
+
+        /**
+         * @return true if no more rows are available at the moment
+         */
+        private boolean isDrained() {
+            return consumed == head.count && head.next == null;
+        }
+    }
+
+    private final String delimiter;
+
+    private final Writer writer;
+
+    /**
+     * Buffers of all threads that appended rows and were not drained completely after their termination.
+     */
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<Buffer> threadBuffer = ThreadLocal.withInitial(() -> {
+        Buffer buffer = new Buffer();
+        buffers.add(buffer);
+        return buffer;
+    });
+
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Number of rows written into the file (without headers). Guarded by the sink monitor.
+     */
+    private long writtenRows;
+
+    /**
+     * First error of a background flush that gets thrown by {@link #flush()} or {@link #close()}.
+     */
+    private volatile IOException failure;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates the file and writes the headers and initial rows into it. See
+     * {@link TabularContainer#openSink(Path, Duration)}.
+     *
+     * @param outputFile    the file to create or overwrite
+     * @param headers       the column headers
+     * @param rows          rows that get written before any appended row
+     * @param delimiter     the column delimiter
+     * @param flushInterval the delay between two background flushes
+     * @throws IOException if the file cannot be created or written
+     */
+    TabularSink(Path outputFile, String[] headers, List<String[]> rows, String delimiter, Duration flushInterval) throws IOException {
+        if (flushInterval.isZero() || flushInterval.isNegative()) {
+            throw new IllegalArgumentException("Flush interval has to be positive");
+        }
+        this.delimiter = delimiter;
+        writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8);
+        CSVUtil.writeRows(writer, headers, rows, delimiter);
+        writer.flush();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TabularSink-" + outputFile.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long delay = flushInterval.toNanos();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, delay, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Appends a row. The call never blocks and the array must not be modified afterwards.
+     *
+     * @param row the values of the row
+     * @throws IllegalStateException if the sink is closed
+     */
+    public void addRow(String... row) {
+        if (closed) {
+            throw new IllegalStateException("TabularSink is closed");
+        }
+        threadBuffer.get().add(row);
+    }
+
+    /**
+     * Like {@link #addRow(String...)} for a list of values.
+     *
+     * @param row the values of the row
+     */
+    public void addRow(List<String> row) {
+        addRow(row.toArray(String[]::new));
+    }
+
+    /**
+     * @return the number of appended rows that were written into the file so far
+     */
+    public synchronized long getWrittenRows() {
+        return writtenRows;
+    }
+
+    /**
+     * Writes all rows that were appended before this call into the file.
+     *
+     * @throws IOException if writing failed now or in the background
+     */
+    public synchronized void flush() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        Iterator<Buffer> iterator = buffers.iterator();
+        while (iterator.hasNext()) {
+            Buffer buffer = iterator.next();
+            // Checked before draining, so no row of a terminating thread gets lost
+            boolean alive = buffer.owner.isAlive();
+            writtenRows += buffer.drain(writer, delimiter);
+            if (!alive && buffer.isDrained()) {
+                iterator.remove();
+            }
+        }
+        writer.flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Stops the background flush, writes the remaining rows and closes the file. Rows that get appended
+     * concurrently to this call may get lost.
+     *
+     * @throws IOException if writing failed now or in the background
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                flush();
+            } finally {
+                writer.close();
+            }
+        }
+    }
+}
@@ -131,6 +131,39 @@ public class XMLDataContainer implements SpecificContainer {
 		}
 	}
 	
+	/**
+	 * @return true if each change gets saved to the file immediately, see {@link XMLEditor#isAutoSave()}
+	 */
+	public boolean isAutoSave() {
+		return xEdit.isAutoSave();
+	}
+
+	/**
+	 * @param autoSave false to apply changes in memory only until {@link #save()} gets called
+	 */
+	public void setAutoSave(boolean autoSave) {
+		xEdit.setAutoSave(autoSave);
+	}
+
+	/**
+	 * Saves the data to the file that the container was read from, if any.
+	 */
+	public void save() {
+		try {
+			xEdit.save();
+		} catch (IOException | TransformerException e) {
+			throw new DataContainerException(e);
+		}
+	}
+
+	/**
+	 * @param file the file to check
+	 * @return true if the file did not change since the container saved it, see {@link XMLEditor#isUnchangedSinceSave(File)}
+	 */
+	public boolean isUnchangedSinceSave(Path file) {
+		return xEdit.isUnchangedSinceSave(file.toFile());
+	}
+
 	public String getRootNode() {
 		return rootNode;
 	}
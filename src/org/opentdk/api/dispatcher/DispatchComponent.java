@@ -9,10 +9,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
 import javax.xml.xpath.XPathExpressionException;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Similar to the native <code><b>enum</b></code> type of Java, the {@link DispatchComponent} class is used to build a set of variables with the difference that their values are not static and
@@ -57,6 +59,10 @@ import java.util.List;
  * 	<code><b>settings.APP_LANGUAGE.setValue("de");</b></code>
  *  </pre>
  *
+ * 	Values read by <code>getValue</code> and <code>getValues</code> are cached per component and parameter string until
+ * 	the data of the container changes, see {@link DataContainer#getVersion()}. So settings can be read in hot loops.
+ * 	<br><br>
+ *
  * 	Sample content of an associated XML file:
  * 	<pre>
  * 	<code><b>&lt;?xml version="1.0" encoding="UTF-8" standalone="no"?&gt;
@@ -91,6 +97,30 @@ public class DispatchComponent {
      */
     private final String defaultValue;
 
+    /**
+     * Values that were read for a version of the container data.
+     *
+     * @param version the version of the container data before reading
+     * @param values  the values that were read
+     */
+    private record CachedValues(long version, String[] values) {
+    }
+
+    /**
+     * Values read by {@link #getValues(String)} without parameters. Kept in a field for the fastest access.
+     */
+    private volatile CachedValues cachedValues;
+
+    /**
+     * Values read by {@link #getValues(String)} with parameters, by the parameter string. The parameters determine the
+     * resolved XPath, so the parameter string identifies the XPath without resolving it.
+     */
+    private final Map<String, CachedValues> cachedParamValues = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder cacheMisses = new LongAdder();
+
     /**
      * Hide no argument constructor because a DispatchComponent without parameter cannot be used.
      */
@@ -177,6 +207,15 @@ public class DispatchComponent {
         return defaultValue;
     }
 
+    /**
+     * Returns the {@link DataContainer} that holds the value of the {@link DispatchComponent}.
+     *
+     * @return the associated container
+     */
+    DataContainer getContainer() {
+        return container;
+    }
+
     public void addValue(String value) {
         addValue("", value);
     }
@@ -323,7 +362,7 @@ public class DispatchComponent {
         if ((parentXPath != null) && (!parentXPath.isEmpty())) {
             return getValue("");
         }
-        String[] ret = container.get(parameterName);
+        String[] ret = readValues("");
         if (ret != null && ret.length > 0 && ret[valueIndex] != null) {
             return ret[valueIndex];
         }
@@ -332,7 +371,7 @@ public class DispatchComponent {
 
     public String getValue(String params) {
         String outVal = defaultValue;
-        String[] values = getValues(params);
+        String[] values = readValues(params);
         if (values.length > 0) {
             outVal = values[0];
         }
@@ -344,6 +383,54 @@ public class DispatchComponent {
     }
 
     public String[] getValues(String params) {
+        return readValues(params).clone();
+    }
+
+    /**
+     * Returns the number of reads by {@link #getValue()} or {@link #getValues()} that were answered from the cache.
+     *
+     * @return the number of cache hits since the creation of the component
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Returns the number of reads by {@link #getValue()} or {@link #getValues()} that had to access the container,
+     * because the values were not read before or the container data changed.
+     *
+     * @return the number of cache misses since the creation of the component
+     */
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Returns the values from the cache or reads them from the container if the container data changed.
+     *
+     * @param params the parameters of the XPath
+     * @return the cached array, which must not be changed
+     */
+    private String[] readValues(String params) {
+        boolean noParams = params == null || params.isEmpty();
+        CachedValues cached = noParams ? cachedValues : cachedParamValues.get(params);
+        long version = container.getVersion();
+        if (cached != null && cached.version() == version) {
+            cacheHits.increment();
+            return cached.values();
+        }
+        cacheMisses.increment();
+        // The version was taken before reading, so values of a concurrent change get read again next time
+        cached = new CachedValues(version, fetchValues(params));
+        if (noParams) {
+            cachedValues = cached;
+        } else {
+            cachedParamValues.put(params, cached);
+        }
+        return cached.values();
+    }
+
+    private String[] fetchValues(String params) {
         Filter fltr = new Filter();
         if ((parentXPath != null) && (!parentXPath.isEmpty())) {
             String pxp = resolveXPath(params);
@@ -369,11 +456,7 @@ public class DispatchComponent {
         Filter fltr = new Filter();
         fltr.addFilterRule("XPath", xPath, EOperator.EQUALS);
         if (container.isTree() && container.isXML()) {
-            try {
-                container.xmlInstance().set(parameterName, attrName, oldValue, attrValue, fltr);
-            } catch (IOException | TransformerException e) {
-                throw new DataContainerException(e);
-            }
+            container.setAttribute(parameterName, attrName, oldValue, attrValue, fltr);
         }
     }
 
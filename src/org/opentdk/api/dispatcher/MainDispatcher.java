@@ -7,9 +7,15 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * This class gets used as super class for properties storage. It provides a DataContainer and access methods to reduce the
@@ -70,6 +76,7 @@ public abstract class MainDispatcher {
     protected final Map<Enum<?>, DispatchComponent> dispatchComponents;
     private final boolean createFile;
     private final String root;
+    private SettingsReloader reloader;
 
     public MainDispatcher(DataContainer dc, boolean createFileFlag, String root) {
         this.dataContainer = dc;
@@ -84,6 +91,7 @@ public abstract class MainDispatcher {
                 if (!dataContainer.xmlInstance().getRootNode().contentEquals(root)) {
                     try {
                         dataContainer.xmlInstance().initXmlEditor(root);
+                        dataContainer.markModified();
                     } catch (ParserConfigurationException | IOException | SAXException e) {
                         throw new DataContainerException(e);
                     }
@@ -99,7 +107,135 @@ public abstract class MainDispatcher {
         }
     }
 
+    /**
+     * Changes of several {@link DispatchComponent}s that get applied by {@link #update(Consumer)}.
+     */
+    public static final class Batch {
+
+        private Batch() {
+        }
+
+        /**
+         * @see DispatchComponent#setValue(String)
+         */
+        public Batch setValue(DispatchComponent component, String value) {
+            component.setValue(value);
+            return this;
+        }
+
+        /**
+         * @see DispatchComponent#setValue(String, String)
+         */
+        public Batch setValue(DispatchComponent component, String params, String value) {
+            component.setValue(params, value);
+            return this;
+        }
+
+        /**
+         * @see DispatchComponent#addValue(String)
+         */
+        public Batch addValue(DispatchComponent component, String value) {
+            component.addValue(value);
+            return this;
+        }
+
+        /**
+         * @see DispatchComponent#setAttribute(String, String, String)
+         */
+        public Batch setAttribute(DispatchComponent component, String params, String attrName, String attrValue) {
+            component.setAttribute(params, attrName, attrValue);
+            return this;
+        }
+
+        /**
+         * @see DispatchComponent#delete()
+         */
+        public Batch delete(DispatchComponent component) {
+            component.delete();
+            return this;
+        }
+    }
+
+    /**
+     * Applies the changes of several components in memory and saves the settings file once afterward, see
+     * {@link DataContainer#update(Runnable)}. Setting many values by the components directly saves the whole file
+     * after each value.
+     * <pre>
+     * settings.update(batch -&gt; batch.setValue(settings.APP_LANGUAGE, "de").setValue(settings.APP_TIMEOUT, "60"));
+     * </pre>
+     *
+     * @param changes applies the changes to the batch
+     * @throws DataContainerException If the file cannot be saved.
+     */
+    public void update(Consumer<Batch> changes) {
+        Batch batch = new Batch();
+        dataContainer.update(() -> changes.accept(batch));
+    }
+
+    /**
+     * Returns the {@link TypedComponent}s of the settings, which are the public fields of the settings class and the
+     * components in {@link #dispatchComponents}.
+     *
+     * @return the typed components
+     */
+    public List<TypedComponent<?>> getTypedComponents() {
+        List<TypedComponent<?>> ret = new ArrayList<>();
+        for (Field field : getClass().getFields()) {
+            if (TypedComponent.class.isAssignableFrom(field.getType()) && !Modifier.isStatic(field.getModifiers())) {
+                try {
+                    field.trySetAccessible();
+                    ret.add((TypedComponent<?>) field.get(this));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        for (DispatchComponent component : dispatchComponents.values()) {
+            if (component instanceof TypedComponent<?> typed && !ret.contains(typed)) {
+                ret.add(typed);
+            }
+        }
+        ret.remove(null);
+        return ret;
+    }
+
     public DispatchComponent get(Enum<?> key) {
         return dispatchComponents.get(key);
     }
+
+    /**
+     * Reloads the settings automatically after the input file of the container was changed, see
+     * {@link SettingsReloader}. The components return the new values after the reload without further calls. A file
+     * with an invalid value for a {@link TypedComponent} does not get loaded.
+     *
+     * @param debounce the time without further changes of the file before it gets read
+     * @return the reloader to register listeners
+     * @throws IllegalStateException If the container was not read from a file.
+     * @throws DataContainerException If the directory of the file cannot be watched.
+     */
+    public synchronized SettingsReloader enableHotReload(Duration debounce) {
+        disableHotReload();
+        try {
+            reloader = new SettingsReloader(dataContainer, debounce);
+            reloader.addValidator(fresh -> getTypedComponents().forEach(component -> component.parse(fresh)));
+        } catch (IOException e) {
+            throw new DataContainerException(e);
+        }
+        return reloader;
+    }
+
+    /**
+     * Stops the automatic reload of the settings that was started by {@link #enableHotReload(Duration)}.
+     */
+    public synchronized void disableHotReload() {
+        if (reloader != null) {
+            try {
+                reloader.close();
+            } catch (IOException e) {
+                throw new DataContainerException(e);
+            } finally {
+                reloader = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,201 @@
+package org.opentdk.api.dispatcher;
+
+import org.opentdk.api.datastorage.DataContainer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the settings file of a {@link DataContainer} and reads it again after it was changed. The file gets
+ * parsed by a background thread into a new container, whose data then replaces the data of the watched container
+ * in one step by {@link DataContainer#replaceContent(DataContainer, long)}. All {@link DispatchComponent}s of the
+ * container keep working during the reload and return the new values afterward. Readers never wait for the reload,
+ * because the components serve their cached values until the data got replaced.
+ * <p>
+ * Editors often write a file in several steps, so the reload waits until the file was not changed for the debounce
+ * time. If the file cannot be parsed, e.g. because it is incomplete, the old data is kept and the listeners get
+ * informed. An empty file counts as incomplete as well. The next change of the file leads to a new attempt.
+ * <p>
+ * Changes of the file by the container itself, e.g. by {@link DispatchComponent#setValue(String)} or
+ * {@link DataContainer#update(Runnable)}, do not lead to a reload, because the data is already up to date. They
+ * get recognized by {@link DataContainer#isUnchangedSinceSave(Path)}, so the cached values of the components stay
+ * valid.
+ *
+ * <pre>
+ * SettingsReloader reloader = settings.enableHotReload(Duration.ofMillis(500));
+ * reloader.addListener(file -&gt; System.out.println("Reloaded " + file));
+ * </pre>
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class SettingsReloader implements Closeable {
+
+    /**
+     * Gets informed about reloads of the settings file.
+     */
+    public interface ReloadListener {
+        /**
+         * Called by the reloading thread after the new data of the file replaced the old data.
+         *
+         * @param file the settings file
+         */
+        void reloaded(Path file);
+
+        /**
+         * Called by the reloading thread if the changed file could not be read. The old data is kept.
+         *
+         * @param file  the settings file
+         * @param cause the error that occurred
+         */
+        default void failed(Path file, Exception cause) {
+        }
+    }
+
+    /**
+     * Maximum number of attempts to replace the data if the container gets changed during the reload.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DataContainer container;
+    private final Path file;
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final List<ReloadListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<DataContainer>> validators = new CopyOnWriteArrayList<>();
+
+    /**
+     * Starts to watch the input file of a container.
+     *
+     * @param container the container to update
+     * @param debounce  the time without further changes of the file before it gets read
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    SettingsReloader(DataContainer container, Duration debounce) throws IOException {
+        if (container.getInputFile() == null) {
+            throw new IllegalStateException("Hot reload requires a container that was read from a file");
+        }
+        this.container = container;
+        this.file = container.getInputFile().toAbsolutePath();
+        this.debounceMillis = Math.max(0, debounce.toMillis());
+        this.watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "settings-reloader-" + file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @param listener the listener to inform about reloads
+     */
+    public void addListener(ReloadListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener the listener to remove
+     */
+    public void removeListener(ReloadListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds a check of the data that was read from the changed file. If a validator throws a {@link RuntimeException},
+     * the old data is kept and the listeners get informed like after a parse error.
+     *
+     * @param validator gets the container with the new data before it replaces the old data
+     */
+    public void addValidator(Consumer<DataContainer> validator) {
+        validators.add(validator);
+    }
+
+    /**
+     * Reads the settings file and replaces the data of the container, like after a change of the file. Gets called
+     * by the reloading thread, but can be called by any thread to force a reload.
+     *
+     * @return true if the data was replaced, false if the file could not be read
+     */
+    public boolean reload() {
+        try {
+            if (Files.size(file) == 0) {
+                throw new IllegalStateException("Settings file is empty: " + file);
+            }
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                long version = container.getVersion();
+                DataContainer fresh = container.isConcurrent() ? DataContainer.newConcurrentContainer(file) : DataContainer.newContainer(file);
+                for (Consumer<DataContainer> validator : validators) {
+                    validator.accept(fresh);
+                }
+                // The container got changed while the file was parsed, so the change might be missing in the file
+                if (container.replaceContent(fresh, version)) {
+                    for (ReloadListener listener : listeners) {
+                        listener.reloaded(file);
+                    }
+                    return true;
+                }
+            }
+            throw new IllegalStateException("Settings were changed during every reload attempt");
+        } catch (IOException | RuntimeException e) {
+            for (ReloadListener listener : listeners) {
+                listener.failed(file, e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                if (awaitChange(watchService.take())) {
+                    // Wait until the file does not change anymore
+                    WatchKey key;
+                    while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                        awaitChange(key);
+                    }
+                    // Skip the notification about the own save of the container
+                    if (!container.isUnchangedSinceSave(file)) {
+                        reload();
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    /**
+     * @return true if the key contains a change of the settings file
+     */
+    private boolean awaitChange(WatchKey key) {
+        boolean ret = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                ret = true;
+            }
+        }
+        key.reset();
+        return ret;
+    }
+}
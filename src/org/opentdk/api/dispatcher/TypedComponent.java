@@ -0,0 +1,216 @@
+package org.opentdk.api.dispatcher;
+
+import org.opentdk.api.datastorage.DataContainer;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * {@link DispatchComponent} that converts its value into a typed value. The value gets parsed and validated once
+ * when the component is created and again after the data of the container changed, e.g. by a setter or a reload by
+ * {@link SettingsReloader}. In between, {@link #get()} returns the stored result without parsing, so typed settings
+ * can be read in hot loops. Invalid values fail with an {@link IllegalArgumentException} at the creation of the
+ * settings class, and {@link MainDispatcher#enableHotReload(Duration)} rejects reloaded files with invalid values.
+ * <br><br>
+ * Declaration in a settings class:
+ * <pre>
+ * public final TypedComponent&lt;Integer&gt; APP_TIMEOUT = TypedComponent.ofInt(getDataContainer(), "Timeout", "/AppSettings", "30");
+ * public final TypedComponent&lt;Duration&gt; APP_INTERVAL = TypedComponent.ofDuration(getDataContainer(), "Interval", "/AppSettings", "PT5M");
+ * public final TypedComponent&lt;List&lt;String&gt;&gt; APP_HOSTS = TypedComponent.ofList(getDataContainer(), "Hosts", "/AppSettings", "", Function.identity());
+ * </pre>
+ * The typed value is read without parameters. Parameterized values can still be read as strings by
+ * {@link #getValue(String)}.
+ *
+ * @param <T> the type of the value
+ * @author FME (LK Test Solutions)
+ */
+public class TypedComponent<T> extends DispatchComponent {
+
+    /**
+     * Value that was parsed for a version of the container data.
+     *
+     * @param version the version of the container data before reading
+     * @param value   the parsed value
+     */
+    private record ParsedValue<T>(long version, T value) {
+    }
+
+    private final Function<String, T> parser;
+
+    /**
+     * The default value of the component as typed value.
+     */
+    private final T typedDefault;
+
+    private volatile ParsedValue<T> parsedValue;
+
+    /**
+     * @param dc        the container that holds the value
+     * @param paramName name of the node or field of the value
+     * @param pxp       path of the node within a tree structure or blank for tabular formats
+     * @param dVal      default value that gets parsed if the node or field does not exist
+     * @param parser    converts the string value into the typed value and throws a {@link RuntimeException} if
+     *                  the value is invalid
+     * @throws IllegalArgumentException If the default value or the current value is invalid.
+     */
+    public TypedComponent(DataContainer dc, String paramName, String pxp, String dVal, Function<String, T> parser) {
+        super(dc, paramName, pxp, dVal);
+        this.parser = parser;
+        this.typedDefault = parse(dVal);
+        refresh();
+    }
+
+    /**
+     * @return the component for integer values
+     * @see TypedComponent#TypedComponent(DataContainer, String, String, String, Function)
+     */
+    public static TypedComponent<Integer> ofInt(DataContainer dc, String paramName, String pxp, String dVal) {
+        return new TypedComponent<>(dc, paramName, pxp, dVal, value -> Integer.parseInt(value.trim()));
+    }
+
+    /**
+     * @return the component for long values
+     * @see TypedComponent#TypedComponent(DataContainer, String, String, String, Function)
+     */
+    public static TypedComponent<Long> ofLong(DataContainer dc, String paramName, String pxp, String dVal) {
+        return new TypedComponent<>(dc, paramName, pxp, dVal, value -> Long.parseLong(value.trim()));
+    }
+
+    /**
+     * Only <code>true</code> and <code>false</code> are valid values, not case-sensitive.
+     *
+     * @return the component for boolean values
+     * @see TypedComponent#TypedComponent(DataContainer, String, String, String, Function)
+     */
+    public static TypedComponent<Boolean> ofBoolean(DataContainer dc, String paramName, String pxp, String dVal) {
+        return new TypedComponent<>(dc, paramName, pxp, dVal, TypedComponent::parseBoolean);
+    }
+
+    /**
+     * Valid values are durations in the ISO-8601 format like <code>PT30S</code> or a number of milliseconds.
+     *
+     * @return the component for durations
+     * @see TypedComponent#TypedComponent(DataContainer, String, String, String, Function)
+     */
+    public static TypedComponent<Duration> ofDuration(DataContainer dc, String paramName, String pxp, String dVal) {
+        return new TypedComponent<>(dc, paramName, pxp, dVal, TypedComponent::parseDuration);
+    }
+
+    /**
+     * Valid values are the names of the enum constants, not case-sensitive.
+     *
+     * @param type the class of the enum
+     * @return the component for enum constants
+     * @see TypedComponent#TypedComponent(DataContainer, String, String, String, Function)
+     */
+    public static <E extends Enum<E>> TypedComponent<E> ofEnum(DataContainer dc, String paramName, String pxp, String dVal, Class<E> type) {
+        return new TypedComponent<>(dc, paramName, pxp, dVal, value -> parseEnum(value, type));
+    }
+
+    /**
+     * Valid values are comma separated lists of elements. A blank value is an empty list.
+     *
+     * @param elementParser converts each trimmed element
+     * @return the component for unmodifiable lists
+     * @see TypedComponent#TypedComponent(DataContainer, String, String, String, Function)
+     */
+    public static <E> TypedComponent<List<E>> ofList(DataContainer dc, String paramName, String pxp, String dVal, Function<String, E> elementParser) {
+        return new TypedComponent<>(dc, paramName, pxp, dVal, value -> parseList(value, elementParser));
+    }
+
+    /**
+     * Returns the typed value. The value only gets parsed if the data of the container changed since the last call.
+     *
+     * @return the typed value of the node or field or the typed default value if it does not exist
+     * @throws IllegalArgumentException If the value was changed to an invalid value.
+     */
+    public T get() {
+        ParsedValue<T> parsed = parsedValue;
+        if (parsed.version() == getContainer().getVersion()) {
+            return parsed.value();
+        }
+        return refresh();
+    }
+
+    /**
+     * @return the default value of the component as typed value
+     */
+    public T getTypedDefault() {
+        return typedDefault;
+    }
+
+    /**
+     * Parses the value of the component in another container, e.g. to validate a file before it gets loaded.
+     *
+     * @param dc the container to read the value from
+     * @return the typed value
+     * @throws IllegalArgumentException If the value is invalid.
+     */
+    public T parse(DataContainer dc) {
+        return parse(new DispatchComponent(dc, getName(), getParentXPath(), getDefaultValue()).getValue());
+    }
+
+    private T refresh() {
+        // The version was taken before reading, so the value of a concurrent change gets parsed again next time
+        long version = getContainer().getVersion();
+        T value = parse(getValue());
+        parsedValue = new ParsedValue<>(version, value);
+        return value;
+    }
+
+    private T parse(String value) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' of " + getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean parseBoolean(String value) {
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) {
+            return true;
+        } else if (trimmed.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Expected true or false");
+    }
+
+    private static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.toUpperCase(Locale.ROOT).startsWith("P")) {
+            try {
+                return Duration.parse(trimmed);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Expected ISO-8601 duration or milliseconds", e);
+            }
+        }
+        return Duration.ofMillis(Long.parseLong(trimmed));
+    }
+
+    private static <E extends Enum<E>> E parseEnum(String value, Class<E> type) {
+        String trimmed = value.trim();
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(trimmed)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No constant of " + type.getSimpleName());
+    }
+
+    private static <E> List<E> parseList(String value, Function<String, E> elementParser) {
+        if (value.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<E> ret = new ArrayList<>();
+        for (String element : value.split(",")) {
+            ret.add(elementParser.apply(element.trim()));
+        }
+        return Collections.unmodifiableList(ret);
+    }
+}
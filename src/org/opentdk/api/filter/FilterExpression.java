@@ -0,0 +1,391 @@
+package org.opentdk.api.filter;
+
+import lombok.Getter;
+import org.opentdk.api.filter.FilterRule.NumericOperand;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A filter condition in the syntax of an SQL WHERE clause, e.g. for filters that are defined in configuration
+ * files. The expression gets parsed once into a tree of conditions that can be compiled for the headers of a
+ * table. The compiled predicate accesses the values by their column index, converts all literals in advance and
+ * evaluates AND and OR with short-circuit.
+ *
+ * <pre>
+ * FilterExpression expression = FilterExpression.parse("Land IN ('Schweiz', 'Italien') AND Alter BETWEEN 30 AND 50");
+ * Predicate{@literal <String[]>} predicate = expression.compile(container.getHeaders());
+ * </pre>
+ *
+ * Supported are the comparison operators <code>= != &lt;&gt; &lt; &lt;= &gt; &gt;=</code>, <code>IN (...)</code>,
+ * <code>BETWEEN ... AND ...</code> and <code>LIKE</code> with the wildcards <code>%</code> and <code>_</code>, each of
+ * the last three also with <code>NOT</code>, as well as <code>AND</code>, <code>OR</code>, <code>NOT</code> and
+ * parentheses. Keywords are not case-sensitive. Values in single quotes are compared as strings, unquoted numbers
+ * by their numeric value like {@link FilterRule#checkNumber(CharSequence)} does: integers exactly as long, other
+ * numbers as double. Column names that contain spaces can be written in double quotes. Rows without a value for
+ * a column do not match any comparison on the column.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public final class FilterExpression {
+
+    /**
+     * A parsed condition that gets compiled for the headers of a table.
+     */
+    @FunctionalInterface
+    private interface Node {
+        Predicate<String[]> compile(String[] headers);
+    }
+
+    private enum ETokenType {
+        WORD, STRING, SYMBOL, END
+    }
+
+    private record Token(ETokenType type, String text) {
+        private boolean isKeyword(String keyword) {
+            return type == ETokenType.WORD && text.equalsIgnoreCase(keyword);
+        }
+
+        private boolean isSymbol(String symbol) {
+            return type == ETokenType.SYMBOL && text.equals(symbol);
+        }
+    }
+
+    /**
+     * A value of the expression. Unquoted values also have their numeric value, quoted values have none.
+     */
+    private record Literal(String text, NumericOperand number) {
+        private boolean isNumber() {
+            return number != null && number.isNumber();
+        }
+    }
+
+    /**
+     * The expression as it was parsed.
+     */
+    @Getter
+    private final String expression;
+
+    private final Node root;
+
+    private final List<Token> tokens;
+    private int position;
+
+    private FilterExpression(String expression) {
+        this.expression = expression;
+        this.tokens = tokenize(expression);
+        this.root = parseOr();
+        if (current().type() != ETokenType.END) {
+            throw error("Unexpected '" + current().text() + "'");
+        }
+    }
+
+    /**
+     * Parses a filter condition.
+     *
+     * @param expression the condition in the syntax of an SQL WHERE clause
+     * @return the parsed expression that can be compiled for any number of tables
+     * @throws IllegalArgumentException If the expression has a syntax error.
+     */
+    public static FilterExpression parse(String expression) {
+        return new FilterExpression(expression);
+    }
+
+    /**
+     * Compiles the expression for the headers of a table.
+     *
+     * @param headers the headers of the table. Column names of the expression are not case-sensitive.
+     * @return the predicate that returns true if a row matches the expression
+     * @throws IllegalArgumentException If a column of the expression is not found in the headers.
+     */
+    public Predicate<String[]> compile(String[] headers) {
+        return root.compile(headers);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    // Grammar with increasing precedence: OR, AND, NOT, comparison or parentheses
+
+    private Node parseOr() {
+        Node left = parseAnd();
+        while (current().isKeyword("OR")) {
+            position++;
+            Node first = left;
+            Node second = parseAnd();
+            left = headers -> first.compile(headers).or(second.compile(headers));
+        }
+        return left;
+    }
+
+    private Node parseAnd() {
+        Node left = parseNot();
+        while (current().isKeyword("AND")) {
+            position++;
+            Node first = left;
+            Node second = parseNot();
+            left = headers -> first.compile(headers).and(second.compile(headers));
+        }
+        return left;
+    }
+
+    private Node parseNot() {
+        if (current().isKeyword("NOT")) {
+            position++;
+            Node operand = parseNot();
+            return headers -> operand.compile(headers).negate();
+        }
+        if (current().isSymbol("(")) {
+            position++;
+            Node ret = parseOr();
+            expectSymbol(")");
+            return ret;
+        }
+        return parseComparison();
+    }
+
+    private Node parseComparison() {
+        Token column = next();
+        if (column.type() != ETokenType.WORD && column.type() != ETokenType.STRING) {
+            throw error("Column name expected instead of '" + column.text() + "'");
+        }
+        if (column.type() == ETokenType.STRING && !column.text().startsWith("\"")) {
+            throw error("Column names have to be unquoted or in double quotes: " + column.text());
+        }
+        String columnName = unquote(column.text());
+        boolean negate = false;
+        if (current().isKeyword("NOT")) {
+            position++;
+            negate = true;
+        }
+        Predicate<String> check;
+        if (current().isKeyword("IN")) {
+            position++;
+            check = parseIn();
+        } else if (current().isKeyword("BETWEEN")) {
+            position++;
+            Literal low = parseLiteral();
+            if (!next().isKeyword("AND")) {
+                throw error("AND expected after BETWEEN " + low.text());
+            }
+            Literal high = parseLiteral();
+            check = value -> isComparable(value, low, ret -> ret >= 0) && isComparable(value, high, ret -> ret <= 0);
+        } else if (current().isKeyword("LIKE")) {
+            position++;
+            Pattern pattern = toPattern(parseLiteral().text());
+            check = value -> pattern.matcher(value).matches();
+        } else if (negate) {
+            throw error("IN, BETWEEN or LIKE expected after NOT");
+        } else {
+            check = parseOperator();
+        }
+        Predicate<String> valueCheck = negate ? check.negate() : check;
+        return headers -> {
+            int columnIndex = findColumn(headers, columnName);
+            return row -> columnIndex < row.length && row[columnIndex] != null && valueCheck.test(row[columnIndex]);
+        };
+    }
+
+    private Predicate<String> parseIn() {
+        expectSymbol("(");
+        Set<String> strings = new HashSet<>();
+        List<NumericOperand> numbers = new ArrayList<>();
+        while (true) {
+            Literal literal = parseLiteral();
+            if (literal.isNumber()) {
+                numbers.add(literal.number());
+            } else {
+                strings.add(literal.text());
+            }
+            if (!current().isSymbol(",")) {
+                break;
+            }
+            position++;
+        }
+        expectSymbol(")");
+        NumericOperand[] numberValues = numbers.toArray(NumericOperand[]::new);
+        return value -> {
+            if (strings.contains(value)) {
+                return true;
+            }
+            if (numberValues.length > 0) {
+                // Parses the value once for all numbers of the list
+                NumericOperand number = NumericOperand.parse(value);
+                for (NumericOperand numberValue : numberValues) {
+                    if (numberValue.compare(number.integral(), number.integer(), number.number()) == 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    private Predicate<String> parseOperator() {
+        Token operator = next();
+        if (operator.type() != ETokenType.SYMBOL) {
+            throw error("Operator expected instead of '" + operator.text() + "'");
+        }
+        Literal literal = parseLiteral();
+        return switch (operator.text()) {
+            case "=" -> literal.isNumber() ? value -> compare(value, literal) == 0 : value -> value.equals(literal.text());
+            case "!=", "<>" -> literal.isNumber() ? value -> isComparable(value, literal, ret -> ret != 0) : value -> !value.equals(literal.text());
+            case "<" -> value -> isComparable(value, literal, ret -> ret < 0);
+            case "<=" -> value -> isComparable(value, literal, ret -> ret <= 0);
+            case ">" -> value -> isComparable(value, literal, ret -> ret > 0);
+            case ">=" -> value -> isComparable(value, literal, ret -> ret >= 0);
+            default -> throw error("Unknown operator '" + operator.text() + "'");
+        };
+    }
+
+    /**
+     * Compares a value of a row with a literal. Numeric literals get compared with the numeric value by
+     * {@link NumericOperand#compare(CharSequence)}.
+     *
+     * @return the comparison result or {@link NumericOperand#NOT_COMPARABLE} if a numeric literal meets a value that
+     *         is no number
+     */
+    private static int compare(String value, Literal literal) {
+        if (literal.isNumber()) {
+            return literal.number().compare(value);
+        }
+        return value.compareTo(literal.text());
+    }
+
+    /**
+     * @return true if the value can be compared with the literal and the result is accepted
+     */
+    private static boolean isComparable(String value, Literal literal, IntPredicate result) {
+        int ret = compare(value, literal);
+        return ret != NumericOperand.NOT_COMPARABLE && result.test(ret);
+    }
+
+    private Literal parseLiteral() {
+        Token token = next();
+        return switch (token.type()) {
+            case STRING -> new Literal(unquote(token.text()), null);
+            case WORD -> new Literal(token.text(), NumericOperand.parse(token.text()));
+            default -> throw error("Value expected instead of '" + token.text() + "'");
+        };
+    }
+
+    /**
+     * Converts a LIKE pattern into a regular expression that gets compiled once.
+     */
+    private static Pattern toPattern(String like) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : like.toCharArray()) {
+            if (c == '%' || c == '_') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static int findColumn(String[] headers, String columnName) {
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i].equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Column '" + columnName + "' not found.");
+    }
+
+    private Token current() {
+        return tokens.get(position);
+    }
+
+    private Token next() {
+        Token ret = tokens.get(position);
+        if (ret.type() != ETokenType.END) {
+            position++;
+        }
+        return ret;
+    }
+
+    private void expectSymbol(String symbol) {
+        Token token = next();
+        if (!token.isSymbol(symbol)) {
+            throw error("'" + symbol + "' expected instead of '" + token.text() + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " in filter expression: " + expression);
+    }
+
+    /**
+     * Removes the quotes of a string token. Doubled quotes within the string stand for one quote.
+     */
+    private static String unquote(String text) {
+        if (text.startsWith("'") || text.startsWith("\"")) {
+            String quote = text.substring(0, 1);
+            return text.substring(1, text.length() - 1).replace(quote + quote, quote);
+        }
+        return text;
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> ret = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = i + 1;
+                while (true) {
+                    if (end >= expression.length()) {
+                        throw new IllegalArgumentException("Missing closing quote in filter expression: " + expression);
+                    }
+                    if (expression.charAt(end) == c) {
+                        if (end + 1 < expression.length() && expression.charAt(end + 1) == c) {
+                            end += 2; // Doubled quote
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                ret.add(new Token(ETokenType.STRING, expression.substring(i, end + 1)));
+                i = end + 1;
+            } else if ("(),".indexOf(c) >= 0) {
+                ret.add(new Token(ETokenType.SYMBOL, String.valueOf(c)));
+                i++;
+            } else if ("=!<>".indexOf(c) >= 0) {
+                int end = i + 1;
+                if (end < expression.length() && (expression.charAt(end) == '=' || (c == '<' && expression.charAt(end) == '>'))) {
+                    end++;
+                }
+                ret.add(new Token(ETokenType.SYMBOL, expression.substring(i, end)));
+                i = end;
+            } else {
+                int end = i;
+                while (end < expression.length() && !Character.isWhitespace(expression.charAt(end)) && "(),=!<>'\"".indexOf(expression.charAt(end)) < 0) {
+                    end++;
+                }
+                ret.add(new Token(ETokenType.WORD, expression.substring(i, end)));
+                i = end;
+            }
+        }
+        ret.add(new Token(ETokenType.END, "end"));
+        return ret;
+    }
+}
@@ -3,6 +3,7 @@ package org.opentdk.api.filter;
 import lombok.Getter;
 import lombok.Setter;
 import org.opentdk.api.util.DateUtil;
+import org.opentdk.api.util.NumberUtil;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -67,6 +68,74 @@ public class FilterRule {
     @Setter
     private ERuleFormat ruleFormat = ERuleFormat.STRING;
 
+    /**
+     * The values parsed as numbers for the numeric operators. Gets initialized by the constructors, so rules can be
+     * shared by threads without synchronization.
+     */
+    private final NumericOperand[] numericOperands;
+
+    /**
+     * A numeric value of a rule or a {@link FilterExpression}. Integers are compared as long, so values beyond the
+     * precision of double like durations in nanoseconds are compared exactly. Other numbers are compared as double.
+     *
+     * @param integral true if the value is an integer in the range of long
+     * @param integer  the value if it is integral
+     * @param number   the value as double or NaN if it is no number
+     */
+    record NumericOperand(boolean integral, long integer, double number) {
+
+        /**
+         * Result of {@link #compare(CharSequence)} if the value or the operand is no number.
+         */
+        static final int NOT_COMPARABLE = Integer.MIN_VALUE;
+
+        static NumericOperand parse(CharSequence text) {
+            long integer = NumberUtil.parseLong(text, Long.MIN_VALUE);
+            if (integer != Long.MIN_VALUE) {
+                return new NumericOperand(true, integer, integer);
+            }
+            return new NumericOperand(false, 0, NumberUtil.parseDouble(text, Double.NaN));
+        }
+
+        private static NumericOperand[] parseAll(String[] texts) {
+            NumericOperand[] ret = new NumericOperand[texts == null ? 0 : texts.length];
+            for (int i = 0; i < ret.length; i++) {
+                ret[i] = parse(texts[i]);
+            }
+            return ret;
+        }
+
+        boolean isNumber() {
+            return !Double.isNaN(number);
+        }
+
+        /**
+         * Compares a value with this operand. The value gets parsed without exceptions.
+         *
+         * @param value the value to compare
+         * @return a negative number, zero or a positive number if the value is less than, equal to or greater than
+         *         this operand, or {@link #NOT_COMPARABLE}
+         */
+        int compare(CharSequence value) {
+            long valueInteger = NumberUtil.parseLong(value, Long.MIN_VALUE);
+            boolean valueIntegral = valueInteger != Long.MIN_VALUE;
+            return compare(valueIntegral, valueInteger, valueIntegral ? valueInteger : NumberUtil.parseDouble(value, Double.NaN));
+        }
+
+        /**
+         * Compares an already parsed value with this operand, see {@link #compare(CharSequence)}.
+         */
+        int compare(boolean valueIntegral, long valueInteger, double valueNumber) {
+            if (Double.isNaN(valueNumber) || Double.isNaN(number)) {
+                return NOT_COMPARABLE;
+            }
+            if (valueIntegral && integral) {
+                return Long.compare(valueInteger, integer);
+            }
+            return valueNumber < number ? -1 : (valueNumber > number ? 1 : 0);
+        }
+    }
+
     /**
      * Constructor that is called when creating an instance of FilterRule with the full rule definition as String. This string will be parsed into the single rule elements like headerName, value,
      * filterOperator and ruleConcatenationOperator and the properties of these elements will automatically be set with the identified values.
@@ -74,6 +143,7 @@ public class FilterRule {
      * @param ruleStr complete rule as string
      */
     public FilterRule(String ruleStr) {
+        numericOperands = new NumericOperand[0];
         setRuleString(ruleStr);
         if (ruleStr.trim().toUpperCase().startsWith("AND")) {
             ruleConcatenationOperator = EOperator.AND;
@@ -122,6 +192,7 @@ public class FilterRule {
     }
 
     public FilterRule(String hName, String[] values, ERuleFormat format) {
+        this.numericOperands = NumericOperand.parseAll(values);
         this.headerName = hName;
         if (values.length == 1) {
             this.value = values[0];
@@ -162,6 +233,7 @@ public class FilterRule {
     }
 
     public FilterRule(String hName, String[] inValues, EOperator operator, ERuleFormat ruleFormat) {
+        numericOperands = NumericOperand.parseAll(inValues);
         if (isValidOperator(inValues, operator)) {
             headerName = hName;
             if (inValues.length == 1) {
@@ -207,6 +279,7 @@ public class FilterRule {
     }
 
     public FilterRule(String hName, String[] values, EOperator m, EOperator concat, ERuleFormat ruleFormat) {
+        this.numericOperands = NumericOperand.parseAll(values);
         if (isValidOperator(values, m)) {
             this.headerName = hName;
             if (values.length == 1) {
@@ -271,7 +344,12 @@ public class FilterRule {
      */
     public boolean checkValue(String val) {
         boolean returnCode = false;
-        if (val != null) {
+        if (val != null && isNumeric()) {
+            returnCode = checkNumber(val);
+        } else if (val != null && filterOperator == EOperator.BETWEEN) {
+            // Both values form one range
+            returnCode = isValidValue(val, values[0]);
+        } else if (val != null) {
             for (String filterValue : values) {
                 returnCode = isValidValue(val, filterValue);
                 if (returnCode) {
@@ -282,6 +360,55 @@ public class FilterRule {
         return returnCode;
     }
 
+    /**
+     * @return true if the operator of the rule compares numbers, which are GREATER_THAN, GREATER_OR_EQUAL_THAN,
+     *         LESS_THAN and LESS_OR_EQUAL_THAN
+     */
+    public boolean isNumeric() {
+        return switch (filterOperator) {
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Checks a value with a numeric operator against all values of the rule. The values of the rule are parsed
+     * by the constructor and the value gets parsed without exceptions, so this can be used for mass data.
+     *
+     * @param val Value to check, e.g. a value of a column with numbers
+     * @return true if the value is a number that matches at least one value of the rule. Empty values, values that
+     *         are no number and <code>null</code> never match.
+     */
+    public boolean checkNumber(CharSequence val) {
+        return matchesNumber(val, numericOperands);
+    }
+
+    private boolean matchesNumber(CharSequence val, NumericOperand... operands) {
+        long integer = NumberUtil.parseLong(val, Long.MIN_VALUE);
+        boolean integral = integer != Long.MIN_VALUE;
+        double number = integral ? integer : NumberUtil.parseDouble(val, Double.NaN);
+        if (Double.isNaN(number)) {
+            return false;
+        }
+        for (NumericOperand operand : operands) {
+            int ret = operand.compare(integral, integer, number);
+            if (ret != NumericOperand.NOT_COMPARABLE && matchesNumber(ret)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesNumber(int ret) {
+        return switch (filterOperator) {
+            case GREATER_THAN -> ret > 0;
+            case GREATER_OR_EQUAL_THAN -> ret >= 0;
+            case LESS_THAN -> ret < 0;
+            case LESS_OR_EQUAL_THAN -> ret <= 0;
+            default -> false;
+        };
+    }
+
     @Override
     public boolean equals(Object o) {
         boolean ret = false;
@@ -312,12 +439,7 @@ public class FilterRule {
     private boolean isValidOperator(String value, EOperator m) {
         boolean ret;
         if ((m == EOperator.GREATER_THAN) || m == EOperator.LESS_THAN) {
-            try {
-                Double.parseDouble(value);
-                ret = true;
-            } catch (NumberFormatException e) {
-                ret = false;
-            }
+            ret = !Double.isNaN(NumberUtil.parseDouble(value, Double.NaN));
         } else {
             ret = true;
         }
@@ -332,6 +454,9 @@ public class FilterRule {
      * @return boolean value True if operator is applicable to all values.
      */
     private boolean isValidOperator(String[] values, EOperator m) {
+        if (m == EOperator.BETWEEN && values.length != 2) {
+            return false;
+        }
         boolean ret = true;
         for (String v : values) {
             if (!isValidOperator(v, m)) {
@@ -420,10 +545,7 @@ public class FilterRule {
                     yield val.trim().equalsIgnoreCase(filterValue);
                 }
             }
-            case GREATER_THAN -> Integer.parseInt(val) > Integer.parseInt(filterValue);
-            case GREATER_OR_EQUAL_THAN -> Integer.parseInt(val) >= Integer.parseInt(filterValue);
-            case LESS_THAN -> Integer.parseInt(val) < Integer.parseInt(filterValue);
-            case LESS_OR_EQUAL_THAN -> Integer.parseInt(val) <= Integer.parseInt(filterValue);
+            case GREATER_THAN, GREATER_OR_EQUAL_THAN, LESS_THAN, LESS_OR_EQUAL_THAN -> matchesNumber(val, NumericOperand.parse(filterValue));
             case NOT_EQUALS -> {
                 if ((ruleFormat.equals(ERuleFormat.QUOTED_REGEX)) || (ruleFormat.equals(ERuleFormat.REGEX))) {
                     yield !isValidExpression(filterValue, val, false);
@@ -454,11 +576,32 @@ public class FilterRule {
             }
             case AND -> throw new IllegalArgumentException("AND not supported as comparator");
             case OR -> throw new IllegalArgumentException("OR not supported as comparator");
-            case IN -> throw new IllegalArgumentException("IN not supported as comparator");
-            case BETWEEN -> throw new IllegalArgumentException("BETWEEN not supported as comparator");
+            case IN -> val.trim().equals(filterValue);
+            case BETWEEN -> isBetween(val.trim());
         };
     }
 
+    /**
+     * Checks if a value is within the range of the first and the last value of the rule including its bounds. The
+     * values get compared by their numeric value if all of them are numbers, like by {@link #checkNumber(CharSequence)},
+     * otherwise as strings.
+     */
+    private boolean isBetween(String val) {
+        String low = values[0];
+        String high = values[values.length - 1];
+        if (numericOperands.length == values.length) {
+            long integer = NumberUtil.parseLong(val, Long.MIN_VALUE);
+            boolean integral = integer != Long.MIN_VALUE;
+            double number = integral ? integer : NumberUtil.parseDouble(val, Double.NaN);
+            int lowRet = numericOperands[0].compare(integral, integer, number);
+            int highRet = numericOperands[numericOperands.length - 1].compare(integral, integer, number);
+            if (lowRet != NumericOperand.NOT_COMPARABLE && highRet != NumericOperand.NOT_COMPARABLE) {
+                return lowRet >= 0 && highRet <= 0;
+            }
+        }
+        return val.compareTo(low) >= 0 && val.compareTo(high) <= 0;
+    }
+
     private boolean isValidExpression(String filterValue, String val, boolean ignoreCase) {
         Pattern pat = null;
         if (ignoreCase) {
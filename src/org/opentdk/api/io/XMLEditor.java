@@ -1,6 +1,8 @@
 package org.opentdk.api.io;
 
 import org.apache.commons.lang3.StringUtils;
+import org.opentdk.api.metrics.LatencyHistogram;
+import org.opentdk.api.metrics.MetricsRegistry;
 import org.w3c.dom.*;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -23,8 +25,12 @@ import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +41,10 @@ import java.util.List;
  * @author LK Test Solutions
  */
 public class XMLEditor {
+	/**
+	 * Duration of {@link #save(File)}.
+	 */
+	private static final LatencyHistogram SAVE_LATENCY = MetricsRegistry.getDefault().histogram("xml.save.latency");
 	/**
 	 * File object with the relative or absolute path and filename of the XML file.
 	 */
@@ -55,6 +65,26 @@ public class XMLEditor {
 	 * The top level XML tag that has all other elements.
 	 */
 	private Element rootElement;
+	/**
+	 * True if each change gets saved to the {@link #xmlFile} immediately. Can be disabled to save several changes
+	 * at once.
+	 */
+	private boolean autoSave = true;
+	/**
+	 * The file as it was after the last {@link #save(File)}, to recognize the own changes of the file, see
+	 * {@link #isUnchangedSinceSave(File)}.
+	 */
+	private volatile SavedFile lastSave;
+
+	/**
+	 * Identity, modification time and size of a file.
+	 */
+	private record SavedFile(Path path, Object fileKey, FileTime modified, long size) {
+		static SavedFile of(Path path) throws IOException {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			return new SavedFile(path, attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+		}
+	}
 
 	/**
 	 * Constructor that is used to create a new empty instance. After initialization read and write
@@ -141,7 +171,7 @@ public class XMLEditor {
 
 	public Element addChildElement(Element parent, Element child) throws IOException, TransformerException {
 		Element newE = (Element) parent.appendChild(child);
-		save();
+		autoSave();
 		return newE;
 	}
 
@@ -165,14 +195,14 @@ public class XMLEditor {
 		}
 		newChild.setTextContent(elementValue);
 		pathE.appendChild(newChild);
-		save();
+		autoSave();
 		return newChild;
 	}
 
 	public Element addRootElement(Element rootE) throws IOException, TransformerException {
 		rootNodeName = rootE.getNodeName();
 		Element outRoot = doc.createElement(rootNodeName);
-		save();
+		autoSave();
 		return outRoot;
 	}
 
@@ -187,7 +217,7 @@ public class XMLEditor {
 	public void addTag(Element entry) throws IOException, TransformerException {
 		Element parent = doc.getDocumentElement();
 		parent.appendChild(entry);
-		save();
+		autoSave();
 	}
 
 	/**
@@ -400,7 +430,7 @@ public class XMLEditor {
 	 */
 	public void delElement(Element target) throws IOException, TransformerException {
 		getElement(target).getParentNode().removeChild(getElement(target));
-		save();
+		autoSave();
 	}
 
 	/**
@@ -441,7 +471,7 @@ public class XMLEditor {
 			}
 			if(oldChild != null) {
 				pathE.removeChild(oldChild);
-				save();
+				autoSave();
 			}
 		}
 	}
@@ -941,6 +971,26 @@ public class XMLEditor {
 		return rootNodeName;
 	}
 
+	/**
+	 * @return {@link #autoSave}
+	 */
+	public boolean isAutoSave() {
+		return autoSave;
+	}
+
+	/**
+	 * @param autoSave {@link #autoSave}
+	 */
+	public void setAutoSave(boolean autoSave) {
+		this.autoSave = autoSave;
+	}
+
+	private void autoSave() throws IOException, TransformerException {
+		if (autoSave) {
+			save();
+		}
+	}
+
 	/**
 	 * Write out results of the XMLEditor to the related file.
 	 */
@@ -956,7 +1006,14 @@ public class XMLEditor {
 		save(new File(fileName));
 	}
 
+	/**
+	 * Writes the document to the given file. The duration gets recorded as <code>xml.save.latency</code> in the
+	 * {@link MetricsRegistry#getDefault() default registry}.
+	 *
+	 * @param xmlOut the file to write
+	 */
 	public void save(File xmlOut) throws IOException, TransformerException {
+		long start = System.nanoTime();
 		TransformerFactory transformerFactory = TransformerFactory.newInstance();
 		// Set recommended secure processing features
 		transformerFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
@@ -966,10 +1023,44 @@ public class XMLEditor {
 
 		removeEmptySpace(rootElement);
 
-		DOMSource source = new DOMSource(doc);
-		StreamResult result = new StreamResult(xmlOut);
-		transformer.transform(source, result);
+		// Write a temporary file that replaces the file, so readers never see a partly written file
+		Path target = xmlOut.toPath().toAbsolutePath();
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				transformer.transform(new DOMSource(doc), new StreamResult(out));
+			}
+			try {
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+		lastSave = SavedFile.of(target);
 		doc.getDocumentElement().normalize();
+		SAVE_LATENCY.recordSince(start);
+	}
+
+	/**
+	 * Checks if a file is still the way the last {@link #save(File)} of this editor left it, e.g. to ignore the
+	 * notification about the own change of a watched file. The file key, modification time and size have to be
+	 * the same, so changes by others get recognized unless they keep all three.
+	 *
+	 * @param file the file to check
+	 * @return true if the file was the target of the last save and did not change since then
+	 */
+	public boolean isUnchangedSinceSave(File file) {
+		SavedFile saved = lastSave;
+		if (saved == null) {
+			return false;
+		}
+		try {
+			return saved.equals(SavedFile.of(file.toPath().toAbsolutePath()));
+		} catch (IOException e) {
+			return false;
+		}
 	}
 
 	/**
@@ -1023,7 +1114,7 @@ public class XMLEditor {
 			el.removeChild(el.getFirstChild());
 		}
 		el.appendChild(doc.createTextNode(val));
-		save();
+		autoSave();
 		return el;
 	}
 
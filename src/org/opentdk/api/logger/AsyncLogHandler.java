@@ -0,0 +1,221 @@
+package org.opentdk.api.logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * {@link Handler} that decouples logging from writing. The logging threads only put the records into a bounded
+ * buffer, and a single background thread takes them out in batches, passes them to the target handlers and flushes
+ * the targets once per batch. So formatting and I/O do not happen on the logging threads anymore.
+ * <p>
+ * While the buffer is full, the {@link EOverflowPolicy} of the {@link LogOptions} decides whether the logging
+ * thread waits or the record gets dropped. The number of dropped records gets written as warning with the next
+ * batch. The records in the buffer get written when the handler gets closed or the JVM shuts down.
+ * <p>
+ * The source class and method of the records are not inferred, because the background thread cannot determine
+ * them. The {@link LogFormatter} does not use them.
+ */
+public class AsyncLogHandler extends Handler {
+
+	/**
+	 * Maximum time that the writer waits for records before it checks if the handler got closed.
+	 */
+	private static final long POLL_MILLIS = 100;
+
+	private final Handler[] targets;
+	private final ArrayBlockingQueue<LogRecord> buffer;
+	private final EOverflowPolicy overflowPolicy;
+	private final int batchSize;
+	private final int sampleRate;
+
+	/**
+	 * Number of records that did not fit into the buffer, to select the samples.
+	 */
+	private final AtomicLong overflows = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	/**
+	 * Number of dropped records that were not reported yet.
+	 */
+	private final LongAdder unreported = new LongAdder();
+
+	/**
+	 * Number of records that were put into the buffer and number of records that were written. Written records get
+	 * counted under the lock of this object, so {@link #flush()} can wait for them.
+	 */
+	private final AtomicLong accepted = new AtomicLong();
+	private long written;
+
+	private final Thread writer;
+	private final Thread shutdownHook;
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * Creates the handler and starts the background thread.
+	 *
+	 * @param options the buffer options
+	 * @param targets the handlers that write the records
+	 */
+	public AsyncLogHandler(LogOptions options, Handler... targets) {
+		this.targets = targets.clone();
+		this.buffer = new ArrayBlockingQueue<>(options.getCapacity());
+		this.overflowPolicy = options.getOverflowPolicy();
+		this.batchSize = options.getBatchSize();
+		this.sampleRate = options.getSampleRate();
+		writer = new Thread(this::drain, "async-log-writer");
+		writer.setDaemon(true);
+		writer.start();
+		shutdownHook = new Thread(this::close, "async-log-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	@Override
+	public void publish(LogRecord logRecord) {
+		if (closed.get() || !isLoggable(logRecord)) {
+			return;
+		}
+		if (buffer.offer(logRecord) || (mustWait(logRecord) && put(logRecord))) {
+			accepted.incrementAndGet();
+		} else {
+			dropped.increment();
+			unreported.increment();
+		}
+	}
+
+	/**
+	 * @return true if the record must be kept although the buffer is full
+	 */
+	private boolean mustWait(LogRecord logRecord) {
+		return switch (overflowPolicy) {
+			case BLOCK -> true;
+			case DROP_LOWEST_LEVEL -> logRecord.getLevel().intValue() >= Level.WARNING.intValue();
+			case SAMPLE -> overflows.getAndIncrement() % sampleRate == 0;
+		};
+	}
+
+	private boolean put(LogRecord logRecord) {
+		try {
+			while (!closed.get()) {
+				if (buffer.offer(logRecord, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	/**
+	 * Waits until all records that were published before got written and flushes the target handlers.
+	 */
+	@Override
+	public void flush() {
+		long target = accepted.get();
+		synchronized (this) {
+			while (written < target && writer.isAlive()) {
+				try {
+					wait(POLL_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the records in the buffer and closes the target handlers.
+	 */
+	@Override
+	public void close() {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// Records of threads that waited for space while the writer stopped
+		List<LogRecord> rest = new ArrayList<>();
+		buffer.drainTo(rest);
+		write(rest);
+		for (Handler target : targets) {
+			target.close();
+		}
+		if (Thread.currentThread() != shutdownHook) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			} catch (IllegalStateException e) {
+				// JVM is shutting down already
+			}
+		}
+	}
+
+	/**
+	 * @return the number of records that got dropped because the buffer was full
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	private void drain() {
+		List<LogRecord> batch = new ArrayList<>(batchSize);
+		while (!closed.get() || !buffer.isEmpty()) {
+			try {
+				LogRecord first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+			} catch (InterruptedException e) {
+				continue;
+			}
+			buffer.drainTo(batch, batchSize - 1);
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	private void write(List<LogRecord> batch) {
+		long droppedSinceLast = unreported.sumThenReset();
+		if (droppedSinceLast > 0) {
+			LogRecord warning = new LogRecord(Level.WARNING, droppedSinceLast + " log records dropped because the buffer was full");
+			warning.setLoggerName(getClass().getName());
+			publishToTargets(warning);
+		}
+		for (LogRecord logRecord : batch) {
+			publishToTargets(logRecord);
+		}
+		for (Handler target : targets) {
+			try {
+				target.flush();
+			} catch (RuntimeException e) {
+				reportError(null, e, ErrorManager.FLUSH_FAILURE);
+			}
+		}
+		synchronized (this) {
+			written += batch.size();
+			notifyAll();
+		}
+	}
+
+	private void publishToTargets(LogRecord logRecord) {
+		for (Handler target : targets) {
+			try {
+				target.publish(logRecord);
+			} catch (RuntimeException e) {
+				reportError(null, e, ErrorManager.WRITE_FAILURE);
+			}
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package org.opentdk.api.logger;
+
+/**
+ * Output formats of the loggers created by {@link LogFactory}.
+ */
+public enum ELogFormat {
+
+	/**
+	 * One line of text per record, written by the {@link LogFormatter}.
+	 */
+	TEXT,
+
+	/**
+	 * One JSON object per line, written by the {@link JsonLogFormatter}.
+	 */
+	JSON
+}
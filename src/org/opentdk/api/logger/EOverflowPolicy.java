@@ -0,0 +1,26 @@
+package org.opentdk.api.logger;
+
+import java.util.logging.Level;
+
+/**
+ * Defines how an {@link AsyncLogHandler} handles log records while its buffer is full.
+ */
+public enum EOverflowPolicy {
+
+	/**
+	 * The logging thread waits until the writer made space in the buffer. No record gets lost.
+	 */
+	BLOCK,
+
+	/**
+	 * Records below {@link Level#WARNING} get dropped, records of {@link Level#WARNING} and above wait for space
+	 * like with {@link #BLOCK}.
+	 */
+	DROP_LOWEST_LEVEL,
+
+	/**
+	 * Only every n-th record that does not fit into the buffer waits for space, the others get dropped. The rate
+	 * is defined by {@link LogOptions#sampleRate(int)}.
+	 */
+	SAMPLE
+}
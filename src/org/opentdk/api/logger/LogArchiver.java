@@ -1,6 +1,9 @@
 package org.opentdk.api.logger;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -12,6 +15,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class to handle log file archiving based on specific criteria such as file size,
@@ -19,6 +23,8 @@ import java.util.stream.Stream;
  * The class provides mechanisms to automatically archive log files and remove old archives
  * to ensure storage efficiency while maintaining record retention policies.
  * <p>
+ * For a continuous rotation while the application runs, see {@link RotatingFileHandler}.
+ * <p>
  * This class is final and cannot be extended.
  * It is designed with static methods and cannot be instantiated.
  */
@@ -63,44 +69,128 @@ public final class LogArchiver {
 	 * @throws IOException if there is an error during the process of archiving, moving, or creating files
 	 */
 	private static void archiveLog(Path logFile, Path archiveDir, int archiveSize) throws IOException {
-		if (!Files.exists(archiveDir)) {
-			Files.createDirectories(archiveDir);
-		}
+		rotate(logFile, archiveDir);
+
+		// Create new log file
+		Files.createFile(logFile);
+
+		// Remove old files when the number exceeds the archive size
+		cleanupOldArchives(archiveDir, logFile.getFileName().toString(), archiveSize, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Moves the log file to the archive directory with a timestamped name like
+	 * <code>application.log_2025-01-01T12-00-00.123</code>. The file gets renamed atomically if the
+	 * archive directory is on the same file system, so writers never see a partly moved file.
+	 *
+	 * @param logFile the path to the log file to be archived
+	 * @param archiveDir the directory where the archived log files will be stored
+	 * @return the path of the archived file
+	 * @throws IOException if the archive directory cannot be created or the file cannot be moved
+	 */
+	public static Path rotate(Path logFile, Path archiveDir) throws IOException {
+		Files.createDirectories(archiveDir);
 
 		// Generate archive name
 		String timestamp = LocalDateTime.now().toString().replace(":", "-");
 		Path archiveFile = archiveDir.resolve(logFile.getFileName() + "_" + timestamp);
+		for (int i = 1; Files.exists(archiveFile) || Files.exists(compressedPath(archiveFile)); i++) {
+			archiveFile = archiveDir.resolve(logFile.getFileName() + "_" + timestamp + "_" + i);
+		}
 
 		// Move log file
-		Files.move(logFile, archiveFile, StandardCopyOption.REPLACE_EXISTING);
+		try {
+			Files.move(logFile, archiveFile, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(logFile, archiveFile);
+		}
+		return archiveFile;
+	}
 
-		// Create new log file
-		Files.createFile(logFile);
+	/**
+	 * Compresses an archived log file with gzip and deletes the uncompressed file. The compressed file
+	 * gets written under a temporary name first, so an interrupted compression leaves the uncompressed
+	 * archive intact.
+	 *
+	 * @param archiveFile the archived log file
+	 * @return the path of the compressed file, which is the archived file with the extension <code>.gz</code>
+	 * @throws IOException if an I/O error occurs while compressing
+	 */
+	public static Path compress(Path archiveFile) throws IOException {
+		Path compressed = compressedPath(archiveFile);
+		Path tmp = archiveFile.resolveSibling(compressed.getFileName() + ".tmp");
+		try (InputStream in = Files.newInputStream(archiveFile);
+			 OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 65536)) {
+			in.transferTo(out);
+		} catch (IOException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		Files.move(tmp, compressed, StandardCopyOption.REPLACE_EXISTING);
+		Files.setLastModifiedTime(compressed, Files.getLastModifiedTime(archiveFile));
+		Files.delete(archiveFile);
+		return compressed;
+	}
 
-		// Remove old files when the number exceeds the archive size
-		cleanupOldArchives(archiveDir, archiveSize);
+	/**
+	 * Removes old archive files of a log file from the specified archive directory to ensure that
+	 * neither the maximum number of archives nor their maximum total size is exceeded. The oldest
+	 * files are prioritized for deletion when a limit is surpassed. Only the archives of the log
+	 * file get considered, which are the files whose names start with the name of the log file.
+	 *
+	 * @param archiveDir the directory containing the archived files
+	 * @param logFileName the file name of the log file
+	 * @param maxArchives the maximum allowed number of archive files to retain
+	 * @param maxTotalBytes the maximum allowed total size of the archive files in bytes
+	 * @throws IOException if an I/O error occurs while accessing or deleting files
+	 */
+	public static void cleanupOldArchives(Path archiveDir, String logFileName, int maxArchives, long maxTotalBytes) throws IOException {
+		cleanupOldArchives(archiveDir, logFileName, "", maxArchives, maxTotalBytes);
 	}
 
 	/**
-	 * Removes old archive files from the specified archive directory to ensure that the
-	 * maximum number of allowed archives is not exceeded. The oldest files are prioritized
-	 * for deletion when the limit is surpassed.
+	 * Removes old archive files like {@link #cleanupOldArchives(Path, String, int, long)}, but only considers the
+	 * archives with the given extension. The {@link RotatingFileHandler} only counts the compressed archives, so
+	 * archives that still wait for their compression neither get deleted nor count against the limits. They get
+	 * counted by the cleanup after their own compression.
 	 *
 	 * @param archiveDir the directory containing the archived files
+	 * @param logFileName the file name of the log file
+	 * @param extension the end of the file names of the archives to consider, e.g. <code>.gz</code>, or an empty
+	 *                  string for all archives
 	 * @param maxArchives the maximum allowed number of archive files to retain
+	 * @param maxTotalBytes the maximum allowed total size of the archive files in bytes
 	 * @throws IOException if an I/O error occurs while accessing or deleting files
 	 */
-	private static void cleanupOldArchives(Path archiveDir, int maxArchives) throws IOException {
+	public static void cleanupOldArchives(Path archiveDir, String logFileName, String extension, int maxArchives, long maxTotalBytes) throws IOException {
+		if (!Files.isDirectory(archiveDir)) {
+			return;
+		}
+		List<Path> archiveFiles;
 		try (Stream<Path> files = Files.list(archiveDir)) {
-			List<Path> archiveFiles = files.filter(Files::isRegularFile)
+			archiveFiles = files.filter(Files::isRegularFile)
+				.filter(path -> isArchive(path, logFileName) && path.getFileName().toString().endsWith(extension))
 				.sorted(Comparator.comparingLong(path -> path.toFile().lastModified()))
 				.collect(Collectors.toList());
-
-			while (archiveFiles.size() > maxArchives) {
-				Path oldestFile = archiveFiles.remove(0);
-				Files.delete(oldestFile);
-			}
 		}
+		long totalBytes = 0;
+		for (Path archiveFile : archiveFiles) {
+			totalBytes += Files.size(archiveFile);
+		}
+		while (!archiveFiles.isEmpty() && (archiveFiles.size() > maxArchives || totalBytes > maxTotalBytes)) {
+			Path oldestFile = archiveFiles.remove(0);
+			totalBytes -= Files.size(oldestFile);
+			Files.delete(oldestFile);
+		}
+	}
+
+	private static boolean isArchive(Path path, String logFileName) {
+		String name = path.getFileName().toString();
+		return name.startsWith(logFileName + "_") && !name.endsWith(".tmp");
+	}
+
+	private static Path compressedPath(Path archiveFile) {
+		return archiveFile.resolveSibling(archiveFile.getFileName() + ".gz");
 	}
 
 }
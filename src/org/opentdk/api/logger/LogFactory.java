@@ -4,6 +4,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Formatter;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,6 +40,23 @@ public final class LogFactory {
 	 * @return A fully configured {@link Logger} instance with the specified settings.
 	 */
 	public static Logger buildLogger(Path logFile, String traceLevel, boolean writeToFile) {
+		return buildLogger(logFile, traceLevel, writeToFile, new LogOptions());
+	}
+
+	/**
+	 * Works like {@link #buildLogger(Path, String, boolean)}, but the handlers can be configured by options. With
+	 * {@link LogOptions#async(boolean)}, the console and file handler get wrapped into an {@link AsyncLogHandler}
+	 * and the file gets written without flushing after each record. With a size or time limit, the file gets
+	 * written by a {@link RotatingFileHandler}. With {@link ELogFormat#JSON}, all handlers write one JSON object per
+	 * line by the {@link JsonLogFormatter}.
+	 *
+	 * @param logFile the path of the log file for file handler configuration. This defines the name of the logger.
+	 * @param traceLevel the logging level to be set for the logger. Defaults to INFO if the provided value is invalid.
+	 * @param writeToFile a flag indicating whether logs should be written to the specified file.
+	 * @param options the options of the handlers
+	 * @return A fully configured {@link Logger} instance with the specified settings.
+	 */
+	public static Logger buildLogger(Path logFile, String traceLevel, boolean writeToFile, LogOptions options) {
 		Logger logger = Logger.getLogger(logFile.toString());
 		Level level;
 		try {
@@ -51,8 +71,9 @@ public final class LogFactory {
 			handler.close();
 			logger.removeHandler(handler);
 		}
+		List<Handler> handlers = new ArrayList<>();
 		// Use factory class to create a console handler that uses the custom formatter as well
-		logger.addHandler(LogHandlerFactory.buildConsoleHandler());
+		handlers.add(LogHandlerFactory.buildConsoleHandler());
 
 		if(writeToFile) {
 			try {
@@ -60,11 +81,26 @@ public final class LogFactory {
 				if(Files.notExists(logFile)) {
 					Files.createFile(logFile);
 				}
-				logger.addHandler(LogHandlerFactory.buildFileHandler(logger.getName()));
+				if(options.isRotating()) {
+					handlers.add(LogHandlerFactory.buildRotatingFileHandler(logFile, options));
+				} else if(options.isAsync()) {
+					handlers.add(LogHandlerFactory.buildBufferedFileHandler(logFile));
+				} else {
+					handlers.add(LogHandlerFactory.buildFileHandler(logger.getName()));
+				}
 			} catch (IOException e) {
 				logger.log(Level.SEVERE, e.getMessage());
 			}
 		}
+		if(options.getFormat() != ELogFormat.TEXT) {
+			Formatter formatter = LogHandlerFactory.buildFormatter(options.getFormat());
+			handlers.forEach(handler -> handler.setFormatter(formatter));
+		}
+		if(options.isAsync()) {
+			logger.addHandler(LogHandlerFactory.buildAsyncHandler(options, handlers.toArray(Handler[]::new)));
+		} else {
+			handlers.forEach(logger::addHandler);
+		}
 		return logger;
 	}
 }
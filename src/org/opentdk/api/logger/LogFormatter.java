@@ -1,5 +1,8 @@
 package org.opentdk.api.logger;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.LogRecord;
 import java.util.logging.SimpleFormatter;
 
@@ -18,13 +21,65 @@ import java.util.logging.SimpleFormatter;
  * - Name of the logger that generated the log entry.
  * - The actual log message.
  * <p>
- * This implementation overrides the default formatting behavior of {@link SimpleFormatter}.
+ * This implementation overrides the default formatting behavior of {@link SimpleFormatter}. The entries get
+ * built in a reused buffer per thread, and the timestamp gets formatted only once per second.
  */
 public class LogFormatter extends SimpleFormatter {
+
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	/**
+	 * Buffers that are larger after formatting a long message get replaced to release the memory.
+	 */
+	private static final int MAX_BUFFER_CAPACITY = 8192;
+
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+	/**
+	 * The formatted timestamp of a second, e.g. "[2025-01-01 12:00:00] [".
+	 *
+	 * @param second the epoch second
+	 * @param prefix the start of the log entries of the second
+	 */
+	private record TimestampPrefix(long second, String prefix) {
+	}
+
+	/**
+	 * The prefix of the last second that got formatted. Log entries arrive mostly in order, so one second covers
+	 * nearly all entries.
+	 */
+	private volatile TimestampPrefix lastPrefix = new TimestampPrefix(Long.MIN_VALUE, "");
+
 	@Override
-	public String format(LogRecord logRecord) {	
-		// %x refers to the number of the following parameter
-		// E.g [2025-01-01 12:00:00] [SEVERE] logs/application.log: Invalid program parameter 
-		return String.format("[%1$tF %1$tT] [%2$s] %3$s: %4$s%n", logRecord.getMillis(), logRecord.getLevel().getName(), logRecord.getLoggerName(), logRecord.getMessage());
+	public String format(LogRecord logRecord) {
+		// Same as String.format("[%1$tF %1$tT] [%2$s] %3$s: %4$s%n", ...) without parsing the format each time
+		// E.g [2025-01-01 12:00:00] [SEVERE] logs/application.log: Invalid program parameter
+		StringBuilder sb = BUFFER.get();
+		sb.setLength(0);
+		sb.append(prefix(logRecord.getMillis()))
+				.append(logRecord.getLevel().getName())
+				.append("] ")
+				.append(logRecord.getLoggerName())
+				.append(": ")
+				.append(logRecord.getMessage())
+				.append(LINE_SEPARATOR);
+		String ret = sb.toString();
+		if (sb.capacity() > MAX_BUFFER_CAPACITY) {
+			BUFFER.remove();
+		}
+		return ret;
+	}
+
+	private String prefix(long millis) {
+		long second = Math.floorDiv(millis, 1000);
+		TimestampPrefix cached = lastPrefix;
+		if (cached.second() != second) {
+			String timestamp = TIMESTAMP.format(Instant.ofEpochSecond(second).atZone(ZoneId.systemDefault()));
+			cached = new TimestampPrefix(second, "[" + timestamp + "] [");
+			lastPrefix = cached;
+		}
+		return cached.prefix();
 	}
 }
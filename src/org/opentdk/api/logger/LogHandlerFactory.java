@@ -1,8 +1,13 @@
 package org.opentdk.api.logger;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.StreamHandler;
 
 
 /**
@@ -14,6 +19,19 @@ import java.util.logging.FileHandler;
  */
 public final class LogHandlerFactory {
 
+	/**
+	 * Creates the formatter of a log format.
+	 *
+	 * @param format the log format
+	 * @return A {@link LogFormatter} for {@link ELogFormat#TEXT} or a {@link JsonLogFormatter} for {@link ELogFormat#JSON}.
+	 */
+	public static Formatter buildFormatter(ELogFormat format) {
+		return switch (format) {
+			case TEXT -> new LogFormatter();
+			case JSON -> new JsonLogFormatter();
+		};
+	}
+
 	/**
 	 * Creates and configures a {@link ConsoleHandler} with a custom log formatter {@link LogFormatter}.
 	 * The returned handler is ready to be added to a {@link java.util.logging.Logger} instance and ensures
@@ -45,4 +63,41 @@ public final class LogHandlerFactory {
 		return fh;
 	}
 
+	/**
+	 * Creates a {@link StreamHandler} that appends to the given file with the {@link LogFormatter}. In contrast to
+	 * the {@link FileHandler}, the handler does not flush after each record, so it is meant to be used by an
+	 * {@link AsyncLogHandler} that flushes once per batch.
+	 *
+	 * @param logFile the file to append to
+	 * @return A {@link StreamHandler} instance configured with {@link LogFormatter}.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	public static StreamHandler buildBufferedFileHandler(Path logFile) throws IOException {
+		return new StreamHandler(new FileOutputStream(logFile.toFile(), true), new LogFormatter());
+	}
+
+	/**
+	 * Creates a {@link RotatingFileHandler} that appends to the given file with the {@link LogFormatter} and
+	 * rotates it by the limits of the options.
+	 *
+	 * @param logFile the file to append to
+	 * @param options the limits of the log file and its archives
+	 * @return A {@link RotatingFileHandler} instance configured with {@link LogFormatter}.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	public static RotatingFileHandler buildRotatingFileHandler(Path logFile, LogOptions options) throws IOException {
+		return new RotatingFileHandler(logFile, options);
+	}
+
+	/**
+	 * Creates an {@link AsyncLogHandler} that writes the records by the given handlers on a background thread.
+	 *
+	 * @param options the buffer options
+	 * @param targets the handlers that write the records
+	 * @return An {@link AsyncLogHandler} instance that has already started its writer thread.
+	 */
+	public static AsyncLogHandler buildAsyncHandler(LogOptions options, Handler... targets) {
+		return new AsyncLogHandler(options, targets);
+	}
+
 }
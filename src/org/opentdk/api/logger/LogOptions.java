@@ -0,0 +1,205 @@
+package org.opentdk.api.logger;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.logging.Handler;
+
+/**
+ * Options for the loggers created by {@link LogFactory}. By default, the handlers write synchronously on the
+ * thread that logs. With {@link #async(boolean)}, the handlers get wrapped into an {@link AsyncLogHandler}, so
+ * the logging threads only put the records into a buffer that a background thread writes. With
+ * {@link #rotateSize(long)} or {@link #rotateInterval(Duration)}, the log file gets written by a
+ * {@link RotatingFileHandler}.
+ * <pre>
+ * LogOptions options = new LogOptions().async(true).capacity(16384).overflowPolicy(EOverflowPolicy.DROP_LOWEST_LEVEL);
+ * Logger logger = LogFactory.buildLogger(logFile, "INFO", true, options);
+ * </pre>
+ */
+@Getter
+public class LogOptions {
+
+	/**
+	 * The output format of all handlers.
+	 */
+	private ELogFormat format = ELogFormat.TEXT;
+
+	/**
+	 * True to write the records by a background thread.
+	 */
+	private boolean async;
+
+	/**
+	 * The maximum number of records in the buffer of the {@link AsyncLogHandler}.
+	 */
+	private int capacity = 8192;
+
+	/**
+	 * Defines what happens to records while the buffer is full.
+	 */
+	private EOverflowPolicy overflowPolicy = EOverflowPolicy.BLOCK;
+
+	/**
+	 * The maximum number of records that get written before the {@link Handler}s get flushed.
+	 */
+	private int batchSize = 256;
+
+	/**
+	 * For {@link EOverflowPolicy#SAMPLE}, one of this number of records gets kept while the buffer is full.
+	 */
+	private int sampleRate = 10;
+
+	/**
+	 * The size in bytes at which the log file gets rotated by the {@link RotatingFileHandler}, or 0 for no size limit.
+	 */
+	private long rotateSize;
+
+	/**
+	 * The time after which the log file gets rotated by the {@link RotatingFileHandler}, or null for no time limit.
+	 */
+	private Duration rotateInterval;
+
+	/**
+	 * The directory for the archives of rotated log files, or null for the folder <code>archive</code> next to the
+	 * log file.
+	 */
+	private Path archiveDir;
+
+	/**
+	 * The maximum number of archives of the log file.
+	 */
+	private int maxArchives = 10;
+
+	/**
+	 * The maximum total size in bytes of the archives of the log file.
+	 */
+	private long maxArchiveBytes = Long.MAX_VALUE;
+
+	/**
+	 * @return true if a size or time limit for the log file is set
+	 */
+	public boolean isRotating() {
+		return rotateSize > 0 || rotateInterval != null;
+	}
+
+	/**
+	 * @param format {@link #format}
+	 * @return these options
+	 */
+	public LogOptions format(ELogFormat format) {
+		this.format = format;
+		return this;
+	}
+
+	/**
+	 * @param async {@link #async}
+	 * @return these options
+	 */
+	public LogOptions async(boolean async) {
+		this.async = async;
+		return this;
+	}
+
+	/**
+	 * @param capacity {@link #capacity}
+	 * @return these options
+	 */
+	public LogOptions capacity(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		this.capacity = capacity;
+		return this;
+	}
+
+	/**
+	 * @param overflowPolicy {@link #overflowPolicy}
+	 * @return these options
+	 */
+	public LogOptions overflowPolicy(EOverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+		return this;
+	}
+
+	/**
+	 * @param batchSize {@link #batchSize}
+	 * @return these options
+	 */
+	public LogOptions batchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * @param sampleRate {@link #sampleRate}
+	 * @return these options
+	 */
+	public LogOptions sampleRate(int sampleRate) {
+		if (sampleRate < 1) {
+			throw new IllegalArgumentException("Sample rate must be positive");
+		}
+		this.sampleRate = sampleRate;
+		return this;
+	}
+
+	/**
+	 * @param rotateSize {@link #rotateSize}
+	 * @return these options
+	 */
+	public LogOptions rotateSize(long rotateSize) {
+		if (rotateSize < 0) {
+			throw new IllegalArgumentException("Rotate size must not be negative");
+		}
+		this.rotateSize = rotateSize;
+		return this;
+	}
+
+	/**
+	 * @param rotateInterval {@link #rotateInterval}
+	 * @return these options
+	 */
+	public LogOptions rotateInterval(Duration rotateInterval) {
+		if (rotateInterval != null && (rotateInterval.isNegative() || rotateInterval.isZero())) {
+			throw new IllegalArgumentException("Rotate interval must be positive");
+		}
+		this.rotateInterval = rotateInterval;
+		return this;
+	}
+
+	/**
+	 * @param archiveDir {@link #archiveDir}
+	 * @return these options
+	 */
+	public LogOptions archiveDir(Path archiveDir) {
+		this.archiveDir = archiveDir;
+		return this;
+	}
+
+	/**
+	 * @param maxArchives {@link #maxArchives}
+	 * @return these options
+	 */
+	public LogOptions maxArchives(int maxArchives) {
+		if (maxArchives < 0) {
+			throw new IllegalArgumentException("Maximum number of archives must not be negative");
+		}
+		this.maxArchives = maxArchives;
+		return this;
+	}
+
+	/**
+	 * @param maxArchiveBytes {@link #maxArchiveBytes}
+	 * @return these options
+	 */
+	public LogOptions maxArchiveBytes(long maxArchiveBytes) {
+		if (maxArchiveBytes < 0) {
+			throw new IllegalArgumentException("Maximum size of the archives must not be negative");
+		}
+		this.maxArchiveBytes = maxArchiveBytes;
+		return this;
+	}
+}
@@ -0,0 +1,169 @@
+package org.opentdk.api.logger;
+
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.ErrorManager;
+import java.util.logging.LogRecord;
+import java.util.logging.StreamHandler;
+
+/**
+ * {@link StreamHandler} that writes to a log file and rotates it while the application runs. Before each record,
+ * the handler checks if the file reached the size limit or the time limit of the {@link LogOptions}. Then the
+ * file gets closed, moved into the archive directory by {@link LogArchiver#rotate(Path, Path)} and a new file gets
+ * opened. The checks only compare counters, so they cost nearly nothing per record.
+ * <p>
+ * The archives get compressed with gzip by {@link LogArchiver#compress(Path)} on a background thread, so the
+ * logging threads do not wait for the compression. Afterward, the oldest archives get deleted if there are more
+ * archives or more archived bytes than allowed by the options.
+ * <p>
+ * With {@link LogOptions#async(boolean)}, the handler does not flush after each record, because the
+ * {@link AsyncLogHandler} flushes once per batch.
+ */
+public class RotatingFileHandler extends StreamHandler {
+
+	/**
+	 * Compresses the archives of all handlers in order.
+	 */
+	private static final ExecutorService ARCHIVER = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "log-archiver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Path logFile;
+	private final Path archiveDir;
+	private final long rotateSize;
+	private final long rotateMillis;
+	private final int maxArchives;
+	private final long maxArchiveBytes;
+	private final boolean flushEachRecord;
+
+	private CountingOutputStream out;
+	private long nextRotation;
+	private Future<?> pendingArchive;
+
+	/**
+	 * Opens the log file to append to it.
+	 *
+	 * @param logFile the log file
+	 * @param options the limits of the log file and its archives
+	 * @throws IOException If the log file cannot be opened.
+	 */
+	public RotatingFileHandler(Path logFile, LogOptions options) throws IOException {
+		this.logFile = logFile;
+		this.archiveDir = options.getArchiveDir() != null ? options.getArchiveDir() : logFile.toAbsolutePath().getParent().resolve("archive");
+		this.rotateSize = options.getRotateSize() > 0 ? options.getRotateSize() : Long.MAX_VALUE;
+		this.rotateMillis = options.getRotateInterval() != null ? options.getRotateInterval().toMillis() : 0;
+		this.maxArchives = options.getMaxArchives();
+		this.maxArchiveBytes = options.getMaxArchiveBytes();
+		this.flushEachRecord = !options.isAsync();
+		setFormatter(LogHandlerFactory.buildFormatter(options.getFormat()));
+		open();
+	}
+
+	@Override
+	public synchronized void publish(LogRecord logRecord) {
+		if (!isLoggable(logRecord)) {
+			return;
+		}
+		if (out.count > 0 && (out.count >= rotateSize || (rotateMillis > 0 && System.currentTimeMillis() >= nextRotation))) {
+			try {
+				rotate();
+			} catch (IOException e) {
+				reportError("Log rotation failed", e, ErrorManager.OPEN_FAILURE);
+			}
+		}
+		super.publish(logRecord);
+		if (flushEachRecord) {
+			flush();
+		}
+	}
+
+	/**
+	 * Closes the log file and waits until the last archive got compressed.
+	 */
+	@Override
+	public synchronized void close() {
+		super.close();
+		if (pendingArchive != null) {
+			try {
+				pendingArchive.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				reportError("Log archiving failed", e, ErrorManager.CLOSE_FAILURE);
+			}
+		}
+	}
+
+	/**
+	 * @return the directory of the archives
+	 */
+	public Path getArchiveDir() {
+		return archiveDir;
+	}
+
+	private void rotate() throws IOException {
+		// Writes the tail of the formatter and closes the file
+		super.close();
+		Path archiveFile;
+		try {
+			archiveFile = LogArchiver.rotate(logFile, archiveDir);
+		} finally {
+			// Continues with the old file if it could not be moved
+			open();
+		}
+		pendingArchive = ARCHIVER.submit(() -> {
+			try {
+				LogArchiver.compress(archiveFile);
+				// Archives of later rotations that are not compressed yet get counted by their own task
+				LogArchiver.cleanupOldArchives(archiveDir, logFile.getFileName().toString(), ".gz", maxArchives, maxArchiveBytes);
+			} catch (IOException e) {
+				reportError("Log archiving failed", e, ErrorManager.GENERIC_FAILURE);
+			}
+		});
+	}
+
+	private void open() throws IOException {
+		Path parent = logFile.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		out = new CountingOutputStream(new FileOutputStream(logFile.toFile(), true), Files.exists(logFile) ? Files.size(logFile) : 0);
+		nextRotation = System.currentTimeMillis() + rotateMillis;
+		setOutputStream(out);
+	}
+
+	/**
+	 * Counts the bytes of the log file, so the size does not have to be read from the file system.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		private CountingOutputStream(OutputStream out, long count) {
+			super(out);
+			this.count = count;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
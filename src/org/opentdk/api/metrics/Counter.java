@@ -0,0 +1,36 @@
+package org.opentdk.api.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events, e.g. parsed rows. Many threads can count at the same time without waiting for each other, because
+ * the count is striped by a {@link LongAdder}. Counters get created by {@link MetricsRegistry#counter(String)}.
+ */
+public final class Counter {
+
+	private final LongAdder count = new LongAdder();
+
+	Counter() {
+	}
+
+	/**
+	 * Adds one event.
+	 */
+	public void increment() {
+		count.increment();
+	}
+
+	/**
+	 * @param events the number of events to add
+	 */
+	public void add(long events) {
+		count.add(events);
+	}
+
+	/**
+	 * @return the number of events since the counter was created
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+}
@@ -0,0 +1,14 @@
+package org.opentdk.api.metrics;
+
+/**
+ * Current value of something that is not counted but measured when the metrics get reported, e.g. the used heap.
+ * Gauges get registered by {@link MetricsRegistry#gauge(String, Gauge)}.
+ */
+@FunctionalInterface
+public interface Gauge {
+
+	/**
+	 * @return the current value
+	 */
+	double getValue();
+}
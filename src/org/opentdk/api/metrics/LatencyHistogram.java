@@ -0,0 +1,162 @@
+package org.opentdk.api.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of durations in nanoseconds, e.g. the latency of saving a file. Like an HDR histogram, the values get
+ * counted in buckets whose width grows with the value: below 64 ns, each nanosecond has its own bucket, above each
+ * power of two is split into 32 buckets. So percentiles are exact for small values and at most about 3 % too high
+ * for large values, with a fixed memory size. Durations above about 4.9 hours are counted in the last bucket.
+ * <p>
+ * Each bucket is a {@link LongAdder}, so many threads can record at the same time without waiting for each other.
+ * Recording only computes the bucket from the leading zeros of the value and adds to three adders.
+ * <pre>
+ * long start = System.nanoTime();
+ * save();
+ * SAVE_LATENCY.recordSince(start);
+ * </pre>
+ * Histograms get created by {@link MetricsRegistry#histogram(String)}.
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Number of bits of the value that determine the bucket within a power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Values below this limit have one bucket per value.
+	 */
+	private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+
+	/**
+	 * Highest power of two with buckets, 2^44 ns are about 4.9 hours.
+	 */
+	private static final int MAX_MAGNITUDE = 44;
+
+	private static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_MAGNITUDE - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	LatencyHistogram() {
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * @param nanos the duration in nanoseconds, negative durations count as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets[bucketIndex(value)].increment();
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Records the duration from the given start until now.
+	 *
+	 * @param startNanos the start of the duration by {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * @return the number of recorded durations
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the mean of the recorded durations in nanoseconds or 0 if no duration was recorded
+	 */
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * @return the longest recorded duration in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the duration that the given share of the recorded durations does not exceed. The result is the upper
+	 * bound of the bucket that contains the percentile, but at most the longest recorded duration.
+	 *
+	 * @param percentile the share in percent, between 0 and 100
+	 * @return the percentile in nanoseconds or 0 if no duration was recorded
+	 */
+	public long getPercentile(double percentile) {
+		return getPercentiles(percentile)[0];
+	}
+
+	/**
+	 * Returns several percentiles like {@link #getPercentile(double)} from the same state of the buckets.
+	 *
+	 * @param percentiles the shares in percent, between 0 and 100
+	 * @return the percentiles in nanoseconds in the order of the shares
+	 */
+	public long[] getPercentiles(double... percentiles) {
+		long[] counts = new long[buckets.length];
+		long total = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+		long maxValue = getMax();
+		long[] ret = new long[percentiles.length];
+		for (int p = 0; p < percentiles.length; p++) {
+			if (percentiles[p] < 0 || percentiles[p] > 100) {
+				throw new IllegalArgumentException("Percentile must be between 0 and 100");
+			}
+			if (total == 0) {
+				continue;
+			}
+			long rank = Math.max(1, (long) Math.ceil(total * percentiles[p] / 100));
+			long seen = 0;
+			ret[p] = maxValue;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					ret[p] = Math.min(bucketUpperBound(i), maxValue);
+					break;
+				}
+			}
+		}
+		return ret;
+	}
+
+	static int bucketIndex(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		if (magnitude >= MAX_MAGNITUDE) {
+			return BUCKET_COUNT - 1;
+		}
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+		long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,97 @@
+package org.opentdk.api.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link Counter}s, {@link Gauge}s and {@link LatencyHistogram}s of an application by name. The classes of
+ * OpenTDK record into the {@link #getDefault() default registry}:
+ * <ul>
+ * <li><code>csv.rows.read</code> and <code>csv.read.latency</code>: rows parsed by
+ * {@link org.opentdk.api.util.CSVUtil#readRows(java.io.BufferedReader, String)} and the duration of the calls</li>
+ * <li><code>xml.save.latency</code>: duration of {@link org.opentdk.api.io.XMLEditor#save(java.io.File)}</li>
+ * <li><code>db.query.latency</code>: duration of the statements of the
+ * {@link org.opentdk.api.database.DatabaseExecuter}</li>
+ * <li><code>filter.evaluations</code>: rows checked against a filter by the
+ * {@link org.opentdk.api.datastorage.TabularContainer}</li>
+ * </ul>
+ * Metrics get created on the first request of their name and should be kept in a static field, so the lookup does
+ * not happen on the hot path:
+ * <pre>
+ * private static final Counter ROWS_READ = MetricsRegistry.getDefault().counter("csv.rows.read");
+ * </pre>
+ * The metrics can be reported by the {@link MetricsReporter}.
+ */
+public final class MetricsRegistry {
+
+	private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+	private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the registry that the classes of OpenTDK record into
+	 */
+	public static MetricsRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * @param name the name of the counter
+	 * @return the counter of the name, which gets created if it does not exist
+	 * @throws IllegalArgumentException If the name belongs to another type of metric.
+	 */
+	public Counter counter(String name) {
+		Object metric = metrics.computeIfAbsent(name, key -> new Counter());
+		return cast(name, metric, Counter.class);
+	}
+
+	/**
+	 * @param name the name of the histogram
+	 * @return the histogram of the name, which gets created if it does not exist
+	 * @throws IllegalArgumentException If the name belongs to another type of metric.
+	 */
+	public LatencyHistogram histogram(String name) {
+		Object metric = metrics.computeIfAbsent(name, key -> new LatencyHistogram());
+		return cast(name, metric, LatencyHistogram.class);
+	}
+
+	/**
+	 * Registers a gauge or replaces the gauge of the name.
+	 *
+	 * @param name  the name of the gauge
+	 * @param gauge measures the value when the metrics get reported
+	 * @return the gauge
+	 * @throws IllegalArgumentException If the name belongs to another type of metric.
+	 */
+	public Gauge gauge(String name, Gauge gauge) {
+		Object previous = metrics.put(name, gauge);
+		if (previous != null && !(previous instanceof Gauge)) {
+			metrics.put(name, previous);
+			throw new IllegalArgumentException("Metric " + name + " is not a gauge");
+		}
+		return gauge;
+	}
+
+	/**
+	 * @param name the name of the metric
+	 */
+	public void remove(String name) {
+		metrics.remove(name);
+	}
+
+	/**
+	 * @return the metrics by their names in alphabetical order
+	 */
+	public Map<String, Object> getMetrics() {
+		return Collections.unmodifiableMap(new TreeMap<>(metrics));
+	}
+
+	private static <T> T cast(String name, Object metric, Class<T> type) {
+		if (!type.isInstance(metric)) {
+			throw new IllegalArgumentException("Metric " + name + " is not a " + type.getSimpleName());
+		}
+		return type.cast(metric);
+	}
+}
@@ -0,0 +1,215 @@
+package org.opentdk.api.metrics;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.opentdk.api.datastorage.TabularContainer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reports the metrics of a {@link MetricsRegistry} as a table with one row per metric:
+ * <pre>
+ * Name;Type;Count;Rate;Value;Mean;P50;P90;P99;Max
+ * csv.read.latency;histogram;12;0.4;;1834210.5;1703935;2359295;2621439;2641020
+ * csv.rows.read;counter;120000;4000.0;;;;;;
+ * </pre>
+ * The rate is the number of events per second since the previous snapshot of the reporter. Durations are in
+ * nanoseconds. Gauges only have a value.
+ * <p>
+ * The snapshot is a {@link TabularContainer}, so it can be filtered or written like other tabular data. The reporter
+ * can also take the snapshots periodically on a daemon thread and write them to a logger or a file:
+ * <pre>
+ * MetricsReporter reporter = new MetricsReporter(MetricsRegistry.getDefault());
+ * reporter.schedule(Duration.ofMinutes(1), Path.of("logs/metrics.csv"));
+ * ...
+ * reporter.close();
+ * </pre>
+ */
+public class MetricsReporter implements Closeable {
+
+	/**
+	 * The columns of the snapshots.
+	 */
+	public static final String[] HEADERS = { "Name", "Type", "Count", "Rate", "Value", "Mean", "P50", "P90", "P99", "Max" };
+
+	private static final Logger LOG = Logger.getLogger(MetricsReporter.class.getName());
+
+	private final MetricsRegistry registry;
+
+	/**
+	 * The counts of the counters and histograms at the previous snapshot.
+	 */
+	private final Map<String, Long> previousCounts = new HashMap<>();
+	private long previousNanos = System.nanoTime();
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param registry the metrics to report
+	 */
+	public MetricsReporter(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Takes the current values of all metrics.
+	 *
+	 * @return a container with the {@link #HEADERS} and one row per metric, ordered by name
+	 */
+	public synchronized TabularContainer snapshot() {
+		long now = System.nanoTime();
+		double seconds = (now - previousNanos) / 1e9;
+		previousNanos = now;
+		TabularContainer ret = TabularContainer.newInstance();
+		ret.initHeaders(HEADERS);
+		for (Map.Entry<String, Object> entry : registry.getMetrics().entrySet()) {
+			String name = entry.getKey();
+			String[] row = new String[HEADERS.length];
+			row[0] = name;
+			if (entry.getValue() instanceof Counter counter) {
+				long count = counter.getCount();
+				row[1] = "counter";
+				row[2] = String.valueOf(count);
+				row[3] = rate(name, count, seconds);
+			} else if (entry.getValue() instanceof LatencyHistogram histogram) {
+				long count = histogram.getCount();
+				long[] percentiles = histogram.getPercentiles(50, 90, 99);
+				row[1] = "histogram";
+				row[2] = String.valueOf(count);
+				row[3] = rate(name, count, seconds);
+				row[5] = String.valueOf(histogram.getMean());
+				row[6] = String.valueOf(percentiles[0]);
+				row[7] = String.valueOf(percentiles[1]);
+				row[8] = String.valueOf(percentiles[2]);
+				row[9] = String.valueOf(histogram.getMax());
+			} else if (entry.getValue() instanceof Gauge gauge) {
+				row[1] = "gauge";
+				row[4] = String.valueOf(gauge.getValue());
+			}
+			for (int i = 0; i < row.length; i++) {
+				if (row[i] == null) {
+					row[i] = "";
+				}
+			}
+			ret.addRow(row);
+		}
+		return ret;
+	}
+
+	/**
+	 * Takes a snapshot and writes it to a file. Files with the extension <code>.json</code> get an array with one
+	 * object per metric, all other files get the CSV format of the {@link TabularContainer}. The file gets replaced.
+	 *
+	 * @param file the output file
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(Path file) throws IOException {
+		TabularContainer snapshot = snapshot();
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		if (file.getFileName().toString().toLowerCase().endsWith(".json")) {
+			JSONArray metrics = new JSONArray();
+			for (String[] row : snapshot.getRows()) {
+				JSONObject metric = new JSONObject();
+				for (int i = 0; i < HEADERS.length; i++) {
+					if (!row[i].isEmpty()) {
+						metric.put(HEADERS[i].toLowerCase(), i < 2 ? row[i] : Double.valueOf(row[i]));
+					}
+				}
+				metrics.put(metric);
+			}
+			Files.writeString(file, metrics.toString(1));
+		} else {
+			snapshot.writeData(file);
+		}
+	}
+
+	/**
+	 * Takes a snapshot and logs one record per metric with the level INFO.
+	 *
+	 * @param logger the target logger
+	 */
+	public void log(Logger logger) {
+		for (String[] row : snapshot().getRows()) {
+			StringBuilder sb = new StringBuilder(row[0]);
+			for (int i = 1; i < HEADERS.length; i++) {
+				if (!row[i].isEmpty()) {
+					sb.append(' ').append(HEADERS[i]).append('=').append(row[i]);
+				}
+			}
+			logger.info(sb.toString());
+		}
+	}
+
+	/**
+	 * Writes a snapshot by {@link #write(Path)} after each interval until the reporter gets closed. Failed writes
+	 * get logged as warning.
+	 *
+	 * @param interval the time between the snapshots
+	 * @param file     the output file
+	 */
+	public void schedule(Duration interval, Path file) {
+		schedule(interval, () -> {
+			try {
+				write(file);
+			} catch (IOException e) {
+				LOG.log(Level.WARNING, "Metrics could not be written to " + file, e);
+			}
+		});
+	}
+
+	/**
+	 * Logs a snapshot by {@link #log(Logger)} after each interval until the reporter gets closed.
+	 *
+	 * @param interval the time between the snapshots
+	 * @param logger   the target logger
+	 */
+	public void schedule(Duration interval, Logger logger) {
+		schedule(interval, () -> log(logger));
+	}
+
+	private synchronized void schedule(Duration interval, Runnable report) {
+		if (interval.isNegative() || interval.isZero()) {
+			throw new IllegalArgumentException("Interval must be positive");
+		}
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "metrics-reporter");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		long millis = interval.toMillis();
+		scheduler.scheduleAtFixedRate(report, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the periodic reports.
+	 */
+	@Override
+	public synchronized void close() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	private String rate(String name, long count, double seconds) {
+		Long previous = previousCounts.put(name, count);
+		long delta = count - (previous == null ? 0 : previous);
+		return seconds > 0 ? String.valueOf(delta / seconds) : "";
+	}
+}
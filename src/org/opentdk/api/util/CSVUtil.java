@@ -1,6 +1,12 @@
 package org.opentdk.api.util;
 
+import org.opentdk.api.metrics.Counter;
+import org.opentdk.api.metrics.LatencyHistogram;
+import org.opentdk.api.metrics.MetricsRegistry;
+
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -15,9 +21,24 @@ import java.util.Map;
  */
 public class CSVUtil {
 
+	/**
+	 * Size of the byte buffer that gets used to encode the characters when writing into a channel.
+	 */
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Line separator that gets appended to each written row.
+	 */
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	private static final Counter ROWS_READ = MetricsRegistry.getDefault().counter("csv.rows.read");
+	private static final LatencyHistogram READ_LATENCY = MetricsRegistry.getDefault().histogram("csv.read.latency");
+
 	/**
 	 * Reads the content of a file and parses each line into an array of strings
 	 * using the specified delimiter. The parsed data is returned as a list of string arrays.
+	 * Values that are enclosed in double quotes may contain the delimiter, line breaks and
+	 * escaped quotes (<code>""</code>), like written by {@link #writeRows(Writer, String[], Iterable, String)}.
 	 *
 	 * @param filePath the file to be read
 	 * @param delimiter the delimiter used to split each line into an array of strings
@@ -26,16 +47,127 @@ public class CSVUtil {
 	 * @throws IOException if an I/O error occurs while reading the file
 	 */
 	public static List<String[]> readFile(File filePath, String delimiter, Charset encoding) throws IOException {
+		try (BufferedReader br = new LineNumberReader(new FileReader(filePath, encoding))) {
+			return readRows(br, delimiter);
+		}
+	}
+
+	/**
+	 * Reads all remaining rows of the given reader. See {@link #readRow(BufferedReader, String)}. The number of rows
+	 * and the duration get recorded as <code>csv.rows.read</code> and <code>csv.read.latency</code> in the
+	 * {@link MetricsRegistry#getDefault() default registry}.
+	 *
+	 * @param reader the source of the tabular data
+	 * @param delimiter the delimiter used to split each line into an array of strings
+	 * @return a list of string arrays, where each array represents one row of the source
+	 * @throws IOException if an I/O error occurs while reading
+	 */
+	public static List<String[]> readRows(BufferedReader reader, String delimiter) throws IOException {
+		long start = System.nanoTime();
+		// Counts the lines, so unclosed quotes can be reported with their line
+		BufferedReader source = reader instanceof LineNumberReader ? reader : new LineNumberReader(reader);
 		List<String[]> data = new ArrayList<>();
+		String[] values;
+		while ((values = readRow(source, delimiter)) != null) {
+			data.add(values);
+		}
+		ROWS_READ.add(data.size());
+		READ_LATENCY.recordSince(start);
+		return data;
+	}
 
-		try (BufferedReader br = new BufferedReader(new FileReader(filePath, encoding))) {
-			String line;
-			while ((line = br.readLine()) != null) {
-				String[] values = line.split(delimiter);
-				data.add(values);
+	/**
+	 * Reads the next row from the given reader. Lines without double quotes get split by the delimiter
+	 * directly. Otherwise, quoted values are unescaped and may span several lines. The delimiter is no
+	 * regular expression, but gets matched literally. Empty values at the end of a line are kept, so
+	 * <code>a;b;</code> has three values like written by {@link #writeRow(Writer, String[], String)}.
+	 *
+	 * @param reader the source of the tabular data, a {@link LineNumberReader} adds the line to the error of an
+	 *               unclosed quote
+	 * @param delimiter the delimiter used to split each line into an array of strings
+	 * @return the values of the next row or null if the end of the reader was reached
+	 * @throws IOException if an I/O error occurs while reading or a quoted value is not closed before the end of
+	 *                     the reader
+	 */
+	public static String[] readRow(BufferedReader reader, String delimiter) throws IOException {
+		if (delimiter.isEmpty()) {
+			throw new IllegalArgumentException("Delimiter must not be empty");
+		}
+		String line = reader.readLine();
+		if (line == null) {
+			return null;
+		}
+		if (line.indexOf('"') < 0) {
+			return split(line, delimiter);
+		}
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		boolean fieldStart = true;
+		int quoteLine = 0;
+		int i = 0;
+		while (true) {
+			if (i >= line.length()) {
+				if (!quoted) {
+					break;
+				}
+				// Quoted value contains a line break
+				String next = reader.readLine();
+				if (next == null) {
+					String start = value.length() > 20 ? value.substring(0, 20) + "..." : value.toString();
+					throw new IOException("Unclosed quote" + (quoteLine > 0 ? " in line " + quoteLine : "") + " at the value starting with \"" + start.replace("\n", "\\n") + "\"");
+				}
+				value.append('\n');
+				line = next;
+				i = 0;
+				continue;
+			}
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						value.append('"');
+						i++;
+					} else {
+						quoted = false;
+					}
+				} else {
+					value.append(c);
+				}
+				i++;
+			} else if (fieldStart && c == '"') {
+				quoted = true;
+				fieldStart = false;
+				quoteLine = reader instanceof LineNumberReader lineReader ? lineReader.getLineNumber() : 0;
+				i++;
+			} else if (line.startsWith(delimiter, i)) {
+				values.add(value.toString());
+				value.setLength(0);
+				fieldStart = true;
+				i += delimiter.length();
+			} else {
+				value.append(c);
+				fieldStart = false;
+				i++;
 			}
 		}
-		return data;
+		values.add(value.toString());
+		return values.toArray(String[]::new);
+	}
+
+	/**
+	 * Splits a line by the literal delimiter and keeps empty values at the end.
+	 */
+	private static String[] split(String line, String delimiter) {
+		List<String> values = new ArrayList<>();
+		int start = 0;
+		int end;
+		while ((end = line.indexOf(delimiter, start)) >= 0) {
+			values.add(line.substring(start, end));
+			start = end + delimiter.length();
+		}
+		values.add(line.substring(start));
+		return values.toArray(String[]::new);
 	}
 
 	/**
@@ -217,16 +349,50 @@ public class CSVUtil {
 	 * @return a string where rows are separated by newline characters and cells within a row are separated by tab characters
 	 */
 	public static String asString(List<String[]> data) {
-		StringBuilder result = new StringBuilder();
-		for (String[] row : data) {
-			for (String cell : row) {
-				result.append(cell).append("\t");
-			}
-			result.append("\n");
+		return asString(null, data);
+	}
+
+	/**
+	 * Works like {@link #asString(List)}, but takes the header row separately, so that callers do not need to
+	 * copy their rows into a new list. The builder gets sized up front to avoid growing it while appending.
+	 *
+	 * @param headers the header row that gets written first or null if no header row should be written
+	 * @param rows the data rows
+	 * @return a string where rows are separated by newline characters and cells within a row are separated by tab characters
+	 */
+	public static String asString(String[] headers, List<String[]> rows) {
+		long length = headers == null ? 0 : rowLength(headers);
+		for (String[] row : rows) {
+			length += rowLength(row);
+		}
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Data is too large to be returned as string");
+		}
+		StringBuilder result = new StringBuilder((int) length);
+		if (headers != null) {
+			appendRow(result, headers);
+		}
+		for (String[] row : rows) {
+			appendRow(result, row);
 		}
 		return result.toString();
 	}
 
+	private static long rowLength(String[] row) {
+		long length = 1; // Line break
+		for (String cell : row) {
+			length += (cell == null ? 4 : cell.length()) + 1;
+		}
+		return length;
+	}
+
+	private static void appendRow(StringBuilder result, String[] row) {
+		for (String cell : row) {
+			result.append(cell).append('\t');
+		}
+		result.append('\n');
+	}
+
 	/**
 	 * Writes the provided tabular data to a file at the specified output path using a given delimiter and character encoding.
 	 *
@@ -237,21 +403,110 @@ public class CSVUtil {
 	 * @throws IOException if an I/O error occurs while writing the file
 	 */
 	public static void writeFile(List<String[]> data, Path outputFile, String delimiter, Charset encoding) throws IOException {
-		Files.createDirectories(outputFile.getParent());
-		if(Files.notExists(outputFile)) {
-			Files.createFile(outputFile);
+		writeFile(null, data, outputFile, delimiter, encoding);
+	}
+
+	/**
+	 * Works like {@link #writeFile(List, Path, String, Charset)}, but takes the header row separately. The rows
+	 * get streamed into the file without building a copy of the data or one string per line.
+	 *
+	 * @param headers the header row that gets written first or null if no header row should be written
+	 * @param rows the data rows
+	 * @param outputFile the path of the file to write the data to
+	 * @param delimiter the delimiter to separate the values in each row
+	 * @param encoding the character encoding to use for writing the file
+	 * @throws IOException if an I/O error occurs while writing the file
+	 */
+	public static void writeFile(String[] headers, Iterable<String[]> rows, Path outputFile, String delimiter, Charset encoding) throws IOException {
+		if (outputFile.getParent() != null) {
+			Files.createDirectories(outputFile.getParent());
 		}
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile.toFile(), encoding))) {
-			for (String[] row : data) {
-				StringBuilder line = new StringBuilder();
-				for (String value : row) {
-					line.append(value).append(delimiter);
-				}
-				line.deleteCharAt(line.length() - 1); // Remove last delimiter
-				writer.write(line.toString());
-				writer.newLine();
+		try (BufferedWriter writer = Files.newBufferedWriter(outputFile, encoding)) {
+			writeRows(writer, headers, rows, delimiter);
+		}
+	}
+
+	/**
+	 * Writes the header row and all data rows into the given channel. The characters get encoded through one
+	 * reusable buffer, so the memory consumption does not depend on the amount of data. The channel does not
+	 * get closed.
+	 *
+	 * @param channel the target of the data e.g. a {@link java.nio.channels.FileChannel}
+	 * @param headers the header row that gets written first or null if no header row should be written
+	 * @param rows the data rows
+	 * @param delimiter the delimiter to separate the values in each row
+	 * @param encoding the character encoding to use for writing
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public static void writeRows(WritableByteChannel channel, String[] headers, Iterable<String[]> rows, String delimiter, Charset encoding) throws IOException {
+		Writer writer = Channels.newWriter(channel, encoding.newEncoder(), WRITE_BUFFER_SIZE);
+		writeRows(writer, headers, rows, delimiter);
+		writer.flush();
+	}
+
+	/**
+	 * Writes the header row and all data rows into the given writer. Values that contain the delimiter, a double
+	 * quote or a line break get enclosed in double quotes and included double quotes get escaped by doubling them.
+	 * The writer does not get flushed or closed.
+	 *
+	 * @param writer the target of the data, preferably buffered
+	 * @param headers the header row that gets written first or null if no header row should be written
+	 * @param rows the data rows
+	 * @param delimiter the delimiter to separate the values in each row
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public static void writeRows(Writer writer, String[] headers, Iterable<String[]> rows, String delimiter) throws IOException {
+		if (headers != null) {
+			writeRow(writer, headers, delimiter);
+		}
+		for (String[] row : rows) {
+			writeRow(writer, row, delimiter);
+		}
+	}
+
+	/**
+	 * Writes one row including the line separator into the given writer. See {@link #writeRows(Writer, String[], Iterable, String)}.
+	 *
+	 * @param writer the target of the data, preferably buffered
+	 * @param row the values of the row
+	 * @param delimiter the delimiter to separate the values
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public static void writeRow(Writer writer, String[] row, String delimiter) throws IOException {
+		for (int i = 0; i < row.length; i++) {
+			if (i > 0) {
+				writer.write(delimiter);
+			}
+			writeValue(writer, String.valueOf(row[i]), delimiter);
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	private static void writeValue(Writer writer, String value, String delimiter) throws IOException {
+		if (!needsQuotes(value, delimiter)) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		int start = 0;
+		int quote;
+		while ((quote = value.indexOf('"', start)) >= 0) {
+			writer.write(value, start, quote - start + 1);
+			writer.write('"');
+			start = quote + 1;
+		}
+		writer.write(value, start, value.length() - start);
+		writer.write('"');
+	}
+
+	private static boolean needsQuotes(String value, String delimiter) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\n' || c == '\r') {
+				return true;
 			}
 		}
+		return !delimiter.isEmpty() && value.contains(delimiter);
 	}
 
 }
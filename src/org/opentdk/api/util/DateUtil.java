@@ -27,13 +27,17 @@
  */
 package org.opentdk.api.util;
 
+import java.text.ParsePosition;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 /**
  * Class with static utility methods to work with date, time and time stamp formats using the {@link java.time} package.
@@ -61,7 +65,7 @@ public class DateUtil {
     /**
      * List of all supported date formats. Can be enriched by {@link #addPattern(String)}.
      */
-    private static List<String> formats = Arrays.asList(
+    private static final List<String> formats = new CopyOnWriteArrayList<>(List.of(
             "dd.MM.yyyy",
             // Dates
             "yyyyMMdd",              // Kompaktformat ohne Trenner
@@ -158,13 +162,119 @@ public class DateUtil {
             "yyyy GGGG",              // Jahr mit vollständiger Ära
             "e yyyy-MM-dd",           // Lokalisierter Wochentag und Datum
             "u yyyy-MM-dd"            // ISO-Wochentag (1=Montag)
-    );
+    ));
 
     /**
-     * @return {@link #formats}
+     * Maximum number of entries in the shape cache of the {@link #registry}.
+     */
+    private static final int MAX_CACHED_SHAPES = 4096;
+
+    /**
+     * Maximum number of entries in the {@link #formatterCache}.
+     */
+    private static final int MAX_CACHED_FORMATTERS = 256;
+
+    /**
+     * Pre-built formatters of all {@link #formats} together with the learned format candidates per string shape.
+     *
+     * @param patterns   the formats at the time the registry was built
+     * @param formatters the formatter of each pattern at the same index
+     * @param shapes     maps the shape of a string (see {@link #getShape(String)}) to the indexes of the formats that
+     *                   can parse strings of this shape, in the order of the formats list
+     * @param searchOrder the compiled search expressions of all formats used by {@link #findDate(String)}, sorted by
+     *                   the length of the format in descending order
+     */
+    private record FormatRegistry(List<String> patterns, DateTimeFormatter[] formatters, Map<String, int[]> shapes, List<SearchPattern> searchOrder) {
+    }
+
+    /**
+     * Compiled search expression of a format.
+     *
+     * @param format    the date format
+     * @param regex     the expression built by {@link #convertDateFormatToRegex(String)}
+     * @param minDigits the minimum number of digits a string needs to contain to match the expression
+     */
+    private record SearchPattern(String format, Pattern regex, int minDigits) {
+    }
+
+    /**
+     * The current format registry. Gets replaced when a pattern is added, which also clears the shape cache.
+     */
+    private static volatile FormatRegistry registry = buildRegistry();
+
+    /**
+     * Formatters of the output patterns used by the <code>get</code> methods.
+     */
+    private static final Map<String, DateTimeFormatter> formatterCache = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled search expressions of the formats used by {@link #findDate(String, String)}.
+     */
+    private static final Map<String, Pattern> regexCache = new ConcurrentHashMap<>();
+
+    private static FormatRegistry buildRegistry() {
+        List<String> patterns = List.copyOf(formats);
+        DateTimeFormatter[] formatters = new DateTimeFormatter[patterns.size()];
+        for (int i = 0; i < formatters.length; i++) {
+            formatters[i] = DateTimeFormatter.ofPattern(patterns.get(i));
+        }
+        // The score of a match only depends on its length, so the longest fitting format wins. The stable sort keeps the
+        // list order for formats of the same length.
+        List<SearchPattern> searchOrder = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (!pattern.contentEquals("D")) {
+                searchOrder.add(new SearchPattern(pattern, Pattern.compile(convertDateFormatToRegex(pattern)), countDigitLetters(pattern)));
+            }
+        }
+        searchOrder.sort(Comparator.comparingInt((SearchPattern searchPattern) -> searchPattern.format().length()).reversed());
+        return new FormatRegistry(patterns, formatters, new ConcurrentHashMap<>(), List.copyOf(searchOrder));
+    }
+
+    /**
+     * @param dateFormat e.g., dd.MM.yyyy
+     * @return the number of format letters that get converted to a digit by {@link #convertDateFormatToRegex(String)}
+     */
+    private static int countDigitLetters(String dateFormat) {
+        Map<Character, String> formatToRegex = getCharacterStringMap();
+        int ret = 0;
+        boolean inLiteral = false;
+        for (int i = 0; i < dateFormat.length(); i++) {
+            char c = dateFormat.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (!inLiteral && "\\d{1}".equals(formatToRegex.get(c))) {
+                ret++;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Provides a formatter for the given pattern. Formatters are immutable and thread-safe, so they get cached
+     * instead of being created for every call.
+     *
+     * @param pattern a valid date/time format e.g. yyyyMMdd
+     * @return the formatter of the pattern
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static DateTimeFormatter getFormatter(String pattern) {
+        DateTimeFormatter ret = formatterCache.get(pattern);
+        if (ret == null) {
+            ret = DateTimeFormatter.ofPattern(pattern);
+            if (formatterCache.size() >= MAX_CACHED_FORMATTERS) {
+                formatterCache.clear();
+            }
+            formatterCache.put(pattern, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * @return an unmodifiable view of {@link #formats}, which can be changed by {@link #addPattern(String)} and
+     *         {@link #removePattern(String)}
      */
     public static List<String> getAllFormats() {
-        return formats;
+        return Collections.unmodifiableList(formats);
     }
 
     /**
@@ -185,9 +295,30 @@ public class DateUtil {
     /**
      * @param format pattern to add to the {@link #formats} list during runtime. Allows to take this format into account
      *               when using DateUtil
+     * @throws IllegalArgumentException if the pattern is invalid
      */
     public static void addPattern(String format) {
-        formats.add(format);
+        DateTimeFormatter.ofPattern(format); // Validate before the pattern gets used
+        synchronized (formats) {
+            formats.add(format);
+            registry = buildRegistry();
+        }
+    }
+
+    /**
+     * Removes a pattern that was added by {@link #addPattern(String)} or one of the default formats.
+     *
+     * @param format pattern to remove from the {@link #formats} list
+     * @return true if the pattern was in the list
+     */
+    public static boolean removePattern(String format) {
+        synchronized (formats) {
+            boolean ret = formats.remove(format);
+            if (ret) {
+                registry = buildRegistry();
+            }
+            return ret;
+        }
     }
 
     /**
@@ -209,6 +340,30 @@ public class DateUtil {
         }
     }
 
+    /**
+     * Converts a date, time or time stamp string of any supported format into the milliseconds from the epoch of
+     * 1970-01-01T00:00:00Z. Values without time zone get interpreted in the configured {@link #zoneId}. Other than
+     * {@link #compare(String, String)} the method does not throw an exception, so it can be used to convert mass data.
+     *
+     * @param dateTime the input string, can be null
+     * @param missing  the value to return if the string is null or no supported date, time or time stamp
+     * @return the epoch milliseconds or <code>missing</code>
+     */
+    public static long toEpochMillis(String dateTime, long missing) {
+        if (dateTime == null || dateTime.isBlank()) {
+            return missing;
+        }
+        try {
+            TemporalAccessor temporal = findTemporal(dateTime, false);
+            if (temporal == null) {
+                return missing;
+            }
+            return retrieveZonedDateTime(temporal).toInstant().toEpochMilli();
+        } catch (DateTimeException | ArithmeticException e) {
+            return missing;
+        }
+    }
+
     /**
      * Get the day difference between two instants as integer value. Turn of the year will be taken into account as well. E.g. getDayDiff("20193112",
      * "20200101") would return 1.
@@ -244,7 +399,7 @@ public class DateUtil {
      */
     public static String get(String format) {
         ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
@@ -257,10 +412,97 @@ public class DateUtil {
      */
     public static String get(String dateTime, String format) {
         ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
+    /**
+     * Converts a list of date, time or time stamp strings into another format. Other than calling
+     * {@link #get(String, String)} for each value, the input format gets detected only once by the first value
+     * and is tried first for all other values. Values that do not fit get detected individually, so mixed formats
+     * are supported as well.
+     *
+     * @param dateTimes the values to convert, e.g. the column of a tabular container
+     * @param outFormat the preferred date/time format e.g. yyyyMMdd
+     * @return a new list with the converted values in the same order. Null, empty and invalid values get converted to an empty string.
+     */
+    public static List<String> convertAll(List<String> dateTimes, String outFormat) {
+        return convertAll(dateTimes, outFormat, false);
+    }
+
+    /**
+     * Like {@link #convertAll(List, String)}, optionally using all available processors.
+     *
+     * @param dateTimes the values to convert
+     * @param outFormat the preferred date/time format e.g. yyyyMMdd
+     * @param parallel  true to convert the values in parallel, which pays off for large lists
+     * @return a new list with the converted values in the same order
+     */
+    public static List<String> convertAll(List<String> dateTimes, String outFormat, boolean parallel) {
+        DateTimeFormatter detected = null;
+        for (String dateTime : dateTimes) {
+            if (dateTime != null && !dateTime.isBlank()) {
+                detected = detectFormatter(dateTime);
+                break;
+            }
+        }
+        return convertAll(dateTimes, detected, false, getFormatter(outFormat), parallel);
+    }
+
+    /**
+     * Converts a list of date, time or time stamp strings of a known format into another format.
+     *
+     * @param dateTimes the values to convert
+     * @param inFormat  the format of the values e.g. dd.MM.yyyy
+     * @param outFormat the preferred date/time format e.g. yyyyMMdd
+     * @param parallel  true to convert the values in parallel, which pays off for large lists
+     * @return a new list with the converted values in the same order. Null, empty and values that do not fit the input
+     *         format get converted to an empty string.
+     * @throws IllegalArgumentException if one of the formats is invalid
+     */
+    public static List<String> convertAll(List<String> dateTimes, String inFormat, String outFormat, boolean parallel) {
+        return convertAll(dateTimes, getFormatter(inFormat), true, getFormatter(outFormat), parallel);
+    }
+
+    private static List<String> convertAll(List<String> dateTimes, DateTimeFormatter inFormatter, boolean strict, DateTimeFormatter outFormatter, boolean parallel) {
+        String[] values = dateTimes.toArray(String[]::new);
+        String[] ret = new String[values.length];
+        IntStream indexes = IntStream.range(0, values.length);
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> ret[i] = convert(values[i], inFormatter, strict, outFormatter));
+        return Arrays.asList(ret);
+    }
+
+    private static String convert(String dateTime, DateTimeFormatter inFormatter, boolean strict, DateTimeFormatter outFormatter) {
+        if (dateTime == null || dateTime.isBlank()) {
+            return "";
+        }
+        try {
+            TemporalAccessor temporal = inFormatter == null ? null : tryParse(inFormatter, dateTime);
+            if (temporal == null && !strict) {
+                temporal = findTemporal(dateTime, false);
+            }
+            return temporal == null ? "" : outFormatter.format(retrieveZonedDateTime(temporal));
+        } catch (DateTimeException | ArithmeticException e) {
+            return "";
+        }
+    }
+
+    /**
+     * @return the formatter of the first format that can parse the string or null if no format fits
+     */
+    private static DateTimeFormatter detectFormatter(String dateTime) {
+        FormatRegistry current = registry;
+        for (int index : findCandidates(current, dateTime)) {
+            if (tryParse(current.formatters()[index], dateTime) != null) {
+                return current.formatters()[index];
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves the current date.
      *
@@ -269,7 +511,7 @@ public class DateUtil {
      * @return The detected date as string in the default time zone.
      */
     public static String get(long millis, String format) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zoneId));
     }
 
@@ -288,7 +530,7 @@ public class DateUtil {
         } else if (diff < 0) {
             instant = instant.minus(-diff, unit);
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
@@ -308,7 +550,7 @@ public class DateUtil {
         } else if (diff < 0) {
             zonedInstant = zonedInstant.minus(-diff, unit);
         }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(zonedInstant);
     }
 
@@ -322,7 +564,7 @@ public class DateUtil {
     public static String getFirstOf(ChronoField type, String format) {
         ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
         instant = instant.with(type, instant.range(type).getMinimum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
@@ -337,7 +579,7 @@ public class DateUtil {
     public static String getFirstOf(String dateTime, ChronoField type, String format) {
         ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
         instant = instant.with(type, instant.range(type).getMinimum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
@@ -378,7 +620,7 @@ public class DateUtil {
     public static String getLastOf(ChronoField type, String format) {
         ZonedDateTime instant = LocalDateTime.now().atZone(zoneId);
         instant = instant.with(type, instant.range(type).getMaximum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
@@ -393,7 +635,7 @@ public class DateUtil {
     public static String getLastOf(String dateTime, ChronoField type, String format) {
         ZonedDateTime instant = retrieveZonedDateTime(retrieveTemporal(dateTime));
         instant = instant.with(type, instant.range(type).getMaximum());
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.format(instant);
     }
 
@@ -506,34 +748,40 @@ public class DateUtil {
      * @return the detected date/time or empty
      */
     public static Optional<String> findDate(String input) {
-        String bestMatch = null;
-        int highestScore = 0;
-
-        for (String format : formats) {
-            String regex = convertDateFormatToRegex(format);
-            Pattern pattern = Pattern.compile(regex);
-            Matcher matcher = pattern.matcher(input);
-            if (matcher.find()) {
+        int digits = 0;
+        for (int i = 0; i < input.length(); i++) {
+            if (Character.isDigit(input.charAt(i))) {
+                digits++;
+            }
+        }
+        // The formats are sorted by length and only a match with the length of its format counts, so the first fitting
+        // format has the highest score of all formats
+        for (SearchPattern searchPattern : registry.searchOrder()) {
+            int length = searchPattern.format().length();
+            if (length > input.length() || searchPattern.minDigits() > digits) {
+                continue; // Cannot match
+            }
+            Matcher matcher = searchPattern.regex().matcher(input);
+            if (matcher.find() && matcher.end() - matcher.start() == length) {
                 String foundDate = matcher.group();
-                if(foundDate.length() == format.length() && !format.contentEquals("D")) {
-//                    ZonedDateTime.parse(foundDate, DateTimeFormatter.ofPattern(format).withZone(zoneId));
-                    int currentScore = calculateMatchScore(input, foundDate, format);
-                    if (currentScore > highestScore) {
-                        highestScore = currentScore;
-                        bestMatch = foundDate;
-                    }
-                }
+                return calculateMatchScore(input, foundDate, searchPattern.format()) > 0 ? Optional.of(foundDate) : Optional.empty();
             }
         }
-        return Optional.ofNullable(bestMatch);
+        return Optional.empty();
     }
     
     public static Optional<String> findDate(String input, String format) {
         String bestMatch = null;
         int highestScore = 0;
 
-        String regex = convertDateFormatToRegex(format);
-        Pattern pattern = Pattern.compile(regex);
+        Pattern pattern = regexCache.get(format);
+        if (pattern == null) {
+            pattern = Pattern.compile(convertDateFormatToRegex(format));
+            if (regexCache.size() >= MAX_CACHED_FORMATTERS) {
+                regexCache.clear();
+            }
+            regexCache.put(format, pattern);
+        }
         Matcher matcher = pattern.matcher(input);
         while (matcher.find()) {
             String foundDate = matcher.group();
@@ -618,30 +866,112 @@ public class DateUtil {
      * @throws IllegalArgumentException if all formats got checked without result
      */
     public static TemporalAccessor retrieveTemporal(String dateTime) {
-        for(String pattern : getAllFormats()) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-            try {
-                return formatter.parse(dateTime);
-            } catch(DateTimeParseException e) {
-                continue;
-            }
+        TemporalAccessor ret = findTemporal(dateTime, false);
+        if (ret == null) {
+            throw new DateTimeException("Format not supported ==> " + dateTime);
         }
-        throw new DateTimeException("Format not supported ==> " + dateTime);
+        return ret;
     }
     
     public static boolean isTemporal(String dateTime) {
-        for(String pattern : getAllFormats()) {
-        	if(!pattern.contentEquals("D")) {
-	            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-	            try {
-	                formatter.parse(dateTime);
-	                return true;
-	            } catch(DateTimeParseException e) {
-	                continue;
-	            }
-        	}
+        return findTemporal(dateTime, true) != null;
+    }
+
+    /**
+     * Parses the string with the first format of the {@link #formats} list that fits. The formats that can parse strings
+     * of the same shape get learned, so usually only one format needs to be tried and no exception occurs.
+     *
+     * @param dateTime       input date in all available formats
+     * @param skipDayOfYear  true to ignore the format <code>D</code> that matches any number up to 366
+     * @return the parsed temporal or null if no format fits
+     */
+    private static TemporalAccessor findTemporal(String dateTime, boolean skipDayOfYear) {
+        FormatRegistry current = registry;
+        String shape = getShape(dateTime);
+        int[] candidates = current.shapes().get(shape);
+        if (candidates == null) {
+            candidates = findCandidates(current, dateTime);
+            if (current.shapes().size() >= MAX_CACHED_SHAPES) {
+                current.shapes().clear();
+            }
+            current.shapes().put(shape, candidates);
+        }
+        TemporalAccessor ret = parse(current, candidates, dateTime, skipDayOfYear);
+        if (ret == null && candidates.length > 0) {
+            // Candidates were learned from another string of the same shape, so check all formats to be sure
+            ret = parse(current, findCandidates(current, dateTime), dateTime, skipDayOfYear);
+        }
+        return ret;
+    }
+
+    /**
+     * @return the indexes of all formats that can parse the syntax of the string, without resolving the values
+     */
+    private static int[] findCandidates(FormatRegistry current, String dateTime) {
+        int[] ret = new int[current.formatters().length];
+        int count = 0;
+        for (int i = 0; i < ret.length; i++) {
+            ParsePosition position = new ParsePosition(0);
+            TemporalAccessor parsed = current.formatters()[i].parseUnresolved(dateTime, position);
+            if (parsed != null && position.getErrorIndex() < 0 && position.getIndex() == dateTime.length()) {
+                ret[count++] = i;
+            }
+        }
+        return Arrays.copyOf(ret, count);
+    }
+
+    /**
+     * @return the string parsed by the first candidate format that accepts the values or null if none does
+     */
+    private static TemporalAccessor parse(FormatRegistry current, int[] candidates, String dateTime, boolean skipDayOfYear) {
+        for (int index : candidates) {
+            if (skipDayOfYear && current.patterns().get(index).contentEquals("D")) {
+                continue;
+            }
+            TemporalAccessor ret = tryParse(current.formatters()[index], dateTime);
+            if (ret != null) {
+                return ret;
+            }
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Parses a string without throwing an exception if it does not fit. The syntax gets checked first, because
+     * exceptions are expensive.
+     *
+     * @return the parsed temporal or null if the format does not fit the string
+     */
+    private static TemporalAccessor tryParse(DateTimeFormatter formatter, String dateTime) {
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = formatter.parseUnresolved(dateTime, position);
+        if (parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != dateTime.length()) {
+            return null;
+        }
+        try {
+            return formatter.parse(dateTime);
+        } catch (DateTimeParseException e) {
+            // Syntax fits, but values are invalid for this format, e.g. month 13
+            return null;
+        }
+    }
+
+    /**
+     * Builds the shape of a date string that is used to learn the fitting formats. All digits get replaced by
+     * <code>9</code>, all other characters are kept, e.g. <code>31.12.2024</code> and <code>01.01.1999</code>
+     * have the shape <code>99.99.9999</code>.
+     *
+     * @param dateTime input date
+     * @return the shape of the input
+     */
+    private static String getShape(String dateTime) {
+        char[] shape = dateTime.toCharArray();
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] >= '0' && shape[i] <= '9') {
+                shape[i] = '9';
+            }
+        }
+        return new String(shape);
     }
 
     /**
@@ -666,25 +996,16 @@ public class DateUtil {
     }
 
     public static ZonedDateTime retrieveZonedDateTime(TemporalAccessor temporal) {
-        ZonedDateTime ret;
-        try {
-            ret = LocalDateTime.from(temporal).atZone(zoneId);
-        } catch (DateTimeException e) {
-            ret = null;
-        }
-        if(ret == null) {
-            try {
-                ret = LocalDate.from(temporal).atStartOfDay(zoneId);
-            } catch(DateTimeException e) {
-                ret = null;
-            }
-        }
-        if(ret == null) {
-            try {
-                ret = LocalTime.from(temporal).atDate(LocalDate.now()).atZone(zoneId);
-            } catch (DateTimeException e) {
-                ret = null;
-            }
+        ZonedDateTime ret = null;
+        // Queries return null instead of throwing an exception if the temporal does not contain the information
+        LocalDate date = temporal.query(TemporalQueries.localDate());
+        LocalTime time = temporal.query(TemporalQueries.localTime());
+        if (date != null && time != null) {
+            ret = LocalDateTime.of(date, time).atZone(zoneId);
+        } else if (date != null) {
+            ret = date.atStartOfDay(zoneId);
+        } else if (time != null) {
+            ret = time.atDate(LocalDate.now()).atZone(zoneId);
         }
         // Last try for special formats
         if(ret == null) {
@@ -53,6 +53,25 @@ public class MathUtil {
 		return mean;
 	}
 
+	/**
+	 * Get the arithmetic mean of an array of values without boxing them. Values that are NaN or infinite
+	 * get ignored.
+	 * 
+	 * @param values the values, e.g. from {@link org.opentdk.api.datastorage.TabularContainer#getColumnAsDoubles(String)}
+	 * @return the mean value of the finite values or NaN (Not a number) if there is none
+	 */
+	public static double getArithmeticMean(final double[] values) {
+		double sum = 0;
+		int count = 0;
+		for (double value : values) {
+			if (Double.isFinite(value)) {
+				sum += value;
+				count++;
+			}
+		}
+		return count == 0 ? Double.NaN : sum / count;
+	}
+
 	/**
 	 * Get the minimum of a list of numbers as double value.
 	 * 
@@ -85,6 +104,22 @@ public class MathUtil {
 		return min;
 	}
 
+	/**
+	 * Get the smallest finite value of an array without boxing the values.
+	 * 
+	 * @param values the values
+	 * @return the minimum of the finite values or NaN if there is none
+	 */
+	public static double getMinimum(final double[] values) {
+		double min = Double.NaN;
+		for (double value : values) {
+			if (Double.isFinite(value) && !(value >= min)) {
+				min = value;
+			}
+		}
+		return min;
+	}
+
 	/**
 	 * Get the maximum of a list of numbers as double value.
 	 * 
@@ -108,6 +143,33 @@ public class MathUtil {
 		return max;
 	}
 
+	/**
+	 * Get the largest finite value of an array without boxing the values.
+	 * 
+	 * @param values the values
+	 * @return the maximum of the finite values or NaN if there is none
+	 */
+	public static double getMaximum(final double[] values) {
+		double max = Double.NaN;
+		for (double value : values) {
+			if (Double.isFinite(value) && !(value <= max)) {
+				max = value;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Returns an estimate of the percentile of the values in an array without boxing them.
+	 * 
+	 * @param values the values sequence
+	 * @param p      the percentile value to compute, a value between 0 and 100
+	 * @return the calculated percentile of the values or NaN if the array is empty
+	 */
+	public static double getPercentile(final double[] values, double p) {
+		return StatUtils.percentile(values, p);
+	}
+
 	/**
 	 * Returns an estimate of the percentile of the values in the rawValues List.
 	 * 
@@ -181,6 +243,16 @@ public class MathUtil {
 		return sd.evaluate(rawValues.stream().mapToDouble(d -> d).toArray());
 	}
 
+	/**
+	 * Computes the bias corrected sample standard deviation of an array without boxing the values.
+	 * 
+	 * @param values the values sequence
+	 * @return the calculated standard deviation of the values
+	 */
+	public static double getStandardDeviation(final double[] values) {
+		return new StandardDeviation(true).evaluate(values);
+	}
+
 	/**
 	 * Calculate a linear correlation coefficient (normed COVARIANCE) for two variables x and y by using
 	 * <code>getCovariance</code> and <code>getDeviation</code>. If one of the used methods returns NaN,
@@ -0,0 +1,207 @@
+package org.opentdk.api.util;
+
+/**
+ * Fast number parsing for mass data like the values of a table column. Other than
+ * {@link Long#parseLong(String)} and {@link Double#parseDouble(String)} the methods do not throw an
+ * exception for invalid input, but return a given value for missing data. They do not allocate objects
+ * for common input, so millions of values can be parsed without garbage.
+ *
+ * @author FME (LK Test Solutions)
+ */
+public class NumberUtil {
+
+	/**
+	 * Powers of ten that can be represented exactly as double value.
+	 */
+	private static final double[] POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * Largest integer up to that every long value can be represented exactly as double value.
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/**
+	 * Maximum number of decimal digits that fit into a long value.
+	 */
+	private static final int MAX_DIGITS = 18;
+
+	/**
+	 * Parses a decimal integer with an optional sign. Leading and trailing whitespace gets ignored.
+	 *
+	 * @param text    the value to parse, can be null
+	 * @param missing the value to return if the text is null, empty, no integer or out of the range of long
+	 * @return the parsed value or <code>missing</code>
+	 */
+	public static long parseLong(CharSequence text, long missing) {
+		if (text == null) {
+			return missing;
+		}
+		int end = trimEnd(text);
+		int i = trimStart(text, end);
+		if (i == end) {
+			return missing;
+		}
+		boolean negative = false;
+		char c = text.charAt(i);
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			if (++i == end) {
+				return missing;
+			}
+		}
+		// Accumulate negative to be able to represent Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long ret = 0;
+		for (; i < end; i++) {
+			c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return missing;
+			}
+			int digit = c - '0';
+			if (ret < limit / 10 || ret * 10 < limit + digit) {
+				return missing;
+			}
+			ret = ret * 10 - digit;
+		}
+		return negative ? ret : -ret;
+	}
+
+	/**
+	 * Parses a decimal floating point number like <code>-12.5</code>, <code>.5</code> or <code>1.2E-3</code>
+	 * with an optional sign. <code>NaN</code> and <code>Infinity</code> are supported as well. Leading and
+	 * trailing whitespace gets ignored. Values with up to 15 significant digits and a small exponent are
+	 * converted directly and exactly, other values are passed to {@link Double#parseDouble(String)}.
+	 *
+	 * @param text    the value to parse, can be null
+	 * @param missing the value to return if the text is null, empty or no number
+	 * @return the parsed value or <code>missing</code>
+	 */
+	public static double parseDouble(CharSequence text, double missing) {
+		if (text == null) {
+			return missing;
+		}
+		int end = trimEnd(text);
+		int start = trimStart(text, end);
+		int i = start;
+		if (i == end) {
+			return missing;
+		}
+		boolean negative = false;
+		char c = text.charAt(i);
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			i++;
+		}
+		if (i < end && (text.charAt(i) == 'N' || text.charAt(i) == 'I')) {
+			return parseSpecial(text, i, end, negative, missing);
+		}
+
+		long mantissa = 0;
+		int digits = 0; // Significant digits in the mantissa
+		int exponent = 0;
+		boolean anyDigit = false;
+		boolean truncated = false;
+		boolean fraction = false;
+		for (; i < end; i++) {
+			c = text.charAt(i);
+			if (c == '.' && !fraction) {
+				fraction = true;
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				break;
+			}
+			anyDigit = true;
+			if (digits < MAX_DIGITS) {
+				mantissa = mantissa * 10 + (c - '0');
+				if (mantissa != 0) {
+					digits++;
+				}
+				if (fraction) {
+					exponent--;
+				}
+			} else {
+				truncated |= c != '0';
+				if (!fraction) {
+					exponent++;
+				}
+			}
+		}
+		if (!anyDigit) {
+			return missing;
+		}
+		if (i < end && (c == 'e' || c == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+				negativeExponent = text.charAt(i) == '-';
+				i++;
+			}
+			if (i == end) {
+				return missing;
+			}
+			int exponentValue = 0;
+			for (; i < end; i++) {
+				c = text.charAt(i);
+				if (c < '0' || c > '9') {
+					return missing;
+				}
+				if (exponentValue < 100000) {
+					exponentValue = exponentValue * 10 + (c - '0');
+				}
+			}
+			exponent += negativeExponent ? -exponentValue : exponentValue;
+		}
+		if (i != end) {
+			return missing;
+		}
+
+		double ret;
+		if (!truncated && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+			// Both operands are exact, so the result is correctly rounded
+			ret = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+		} else if (mantissa == 0 && !truncated) {
+			ret = 0;
+		} else {
+			return Double.parseDouble(text.subSequence(start, end).toString());
+		}
+		return negative ? -ret : ret;
+	}
+
+	private static double parseSpecial(CharSequence text, int i, int end, boolean negative, double missing) {
+		if (matches(text, i, end, "NaN")) {
+			return Double.NaN;
+		} else if (matches(text, i, end, "Infinity")) {
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		return missing;
+	}
+
+	private static boolean matches(CharSequence text, int start, int end, String expected) {
+		if (end - start != expected.length()) {
+			return false;
+		}
+		for (int i = 0; i < expected.length(); i++) {
+			if (text.charAt(start + i) != expected.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int trimEnd(CharSequence text) {
+		int end = text.length();
+		while (end > 0 && text.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	private static int trimStart(CharSequence text, int end) {
+		int start = 0;
+		while (start < end && text.charAt(start) <= ' ') {
+			start++;
+		}
+		return start;
+	}
+}
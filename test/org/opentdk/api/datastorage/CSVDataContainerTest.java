@@ -1,5 +1,6 @@
 package org.opentdk.api.datastorage;
 
+import org.opentdk.api.exception.DataContainerException;
 import org.opentdk.api.filter.EOperator;
 import org.opentdk.api.filter.Filter;
 import org.opentdk.api.helper.CSVFileGenerator;
@@ -11,10 +12,17 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class CSVDataContainerTest {
     private static final String content = "ID,Name,Alter,Land\n" + "1,Emma,42,Deutschland\n" + "2,Chris,29,Schweiz\n" + "3,Hannah,35,Österreich\n" + "4,Ben,19,Frankreich\n" + "5,Greta,51,Spanien\n" + "6,Felix,27,Italien\n" + "7,Julia,null,Deutschland\n" + "8,David,41,Österreich\n" + "9,'Ivan',60,Schweiz\n" + "10,Anna,31,Frankreich\n";
@@ -174,6 +182,406 @@ public class CSVDataContainerTest {
         System.out.println("Success: Row for 'Ben' is deleted");
     }
 
+    @Test
+    public void writeQuotedValues() throws IOException {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().setDelimiter(";");
+        dc.tabInstance().initHeaders(new String[]{"ID", "Comment"});
+        dc.tabInstance().addRow(new String[]{"1", "plain"});
+        dc.tabInstance().addRow(new String[]{"2", "with;delimiter"});
+        dc.tabInstance().addRow(new String[]{"3", "with \"quotes\""});
+        dc.tabInstance().addRow(new String[]{"4", "with\nline break"});
+        Path outFile = Paths.get("tmp/writeQuotedValues.csv");
+        dc.writeData(outFile);
+
+        DataContainer result = DataContainer.newContainer(EContainerFormat.CSV);
+        result.tabInstance().setDelimiter(";");
+        result.readData(outFile);
+        Assert.assertEquals(result.tabInstance().getRows().size(), 4);
+        Assert.assertEquals(result.tabInstance().getValue(1, "Comment"), "with;delimiter");
+        Assert.assertEquals(result.tabInstance().getValue(2, "Comment"), "with \"quotes\"");
+        Assert.assertEquals(result.tabInstance().getValue(3, "Comment"), "with\nline break");
+        Assert.assertEquals(result.asString(), dc.asString());
+        System.out.println("Success: Quoted values written and read");
+    }
+
+    @Test
+    public void readDelimiterLiterally() throws IOException {
+        Path file = Paths.get("tmp/readDelimiterLiterally.csv");
+        Files.writeString(file, "ID|Name|Comment\n1|a.b|\n2|\"x|y\"|\n");
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().setDelimiter("|");
+        dc.readData(file);
+        // Lines with and without quotes get split the same way and keep the empty last value
+        Assert.assertEquals(dc.tabInstance().getRows().get(0), new String[]{"1", "a.b", ""});
+        Assert.assertEquals(dc.tabInstance().getRows().get(1), new String[]{"2", "x|y", ""});
+
+        Files.writeString(file, "ID|Name\n1|\"open\n2|b\n");
+        DataContainer broken = DataContainer.newContainer(EContainerFormat.CSV);
+        broken.tabInstance().setDelimiter("|");
+        IOException e = Assert.expectThrows(IOException.class, () -> broken.readData(file));
+        Assert.assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+
+    @Test
+    public void concurrentAppend() throws Exception {
+        DataContainer dc = DataContainer.newConcurrentContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"Thread", "Value"});
+        int threads = 4;
+        int rowsPerThread = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = "T" + t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < rowsPerThread; i++) {
+                    dc.tabInstance().addRow(new String[]{name, String.valueOf(i)});
+                }
+            }));
+        }
+        // Filter while the producers append
+        futures.add(executor.submit(() -> {
+            Filter filter = new Filter();
+            filter.addFilterRule("Thread", "T0", EOperator.EQUALS);
+            for (int i = 0; i < 100; i++) {
+                Assert.assertTrue(dc.tabInstance().getRows(filter).size() <= rowsPerThread);
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Assert.assertEquals(dc.tabInstance().getRows().size(), threads * rowsPerThread);
+        Filter filter = new Filter();
+        filter.addFilterRule("Thread", "T3", EOperator.EQUALS);
+        Assert.assertEquals(dc.tabInstance().getRows(filter).size(), rowsPerThread);
+        System.out.println("Success: Rows appended concurrently");
+    }
+
+    @Test
+    public void concurrentDeleteAndSetRow() throws Exception {
+        DataContainer dc = DataContainer.newConcurrentContainer(EContainerFormat.CSV);
+        TabularContainer tab = dc.tabInstance();
+        tab.initHeaders(new String[]{"Kind", "Value", "Extra"});
+        // Rows with three values must never be replaced by the rows with two values of setRow
+        int rowCount = 20000;
+        for (int i = 0; i < rowCount; i++) {
+            tab.addRow(i % 2 == 0 ? new String[]{"short", String.valueOf(i)} : new String[]{"long", String.valueOf(i), "x"});
+        }
+        int deletes = rowCount / 2;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Integer> deleter = executor.submit(() -> {
+            int deletedLong = 0;
+            for (int i = 0; i < deletes; i++) {
+                // Only this thread deletes, and setRow keeps the length, so the length of row 0 stays the same
+                if (tab.getRow(0).length == 3) {
+                    deletedLong++;
+                }
+                tab.deleteRow(0);
+            }
+            return deletedLong;
+        });
+        Future<?> setter = executor.submit(() -> {
+            for (int i = 0; !deleter.isDone(); i++) {
+                try {
+                    tab.setRow(i % 10, new String[]{"short", "set"});
+                } catch (DataContainerException e) {
+                    // The row at the index has three values
+                }
+            }
+        });
+        int deletedLong = deleter.get();
+        setter.get();
+        executor.shutdown();
+
+        long longRows = tab.getRows().stream().filter(row -> row.length == 3).count();
+        Assert.assertEquals(tab.getRows().size(), rowCount - deletes);
+        Assert.assertEquals(longRows, rowCount / 2 - deletedLong);
+        System.out.println("Success: Rows deleted and set concurrently");
+    }
+
+    @Test
+    public void appendToSink() throws Exception {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().setDelimiter(";");
+        dc.tabInstance().initHeaders(new String[]{"Thread", "Step"});
+        dc.tabInstance().addRow(new String[]{"main", "0"});
+        Path outFile = Paths.get("tmp/appendToSink.csv");
+        int threads = 8;
+        int rowsPerThread = 5000;
+        try (TabularSink sink = dc.tabInstance().openSink(outFile, Duration.ofMillis(10))) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String name = "T" + t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= rowsPerThread; i++) {
+                        sink.addRow(name, String.valueOf(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        }
+
+        DataContainer result = DataContainer.newContainer(EContainerFormat.CSV);
+        result.tabInstance().setDelimiter(";");
+        result.readData(outFile);
+        Assert.assertEquals(result.tabInstance().getRows().size(), threads * rowsPerThread + 1);
+        Assert.assertEquals(result.tabInstance().getValue(0, "Thread"), "main");
+        // The order of the rows of one thread is kept
+        List<String> steps = result.tabInstance().getColumn("Step", "Thread", "T5");
+        Assert.assertEquals(steps.size(), rowsPerThread);
+        Assert.assertEquals(steps.getLast(), String.valueOf(rowsPerThread));
+        System.out.println("Success: Rows appended to sink");
+    }
+
+    @Test
+    public void appendData() throws IOException {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().setDelimiter(";");
+        dc.tabInstance().initHeaders(new String[]{"ID", "Result"});
+        dc.tabInstance().addRow(new String[]{"1", "passed"});
+        Path outFile = Paths.get("tmp/appendData.csv");
+        dc.tabInstance().appendData(outFile);
+        long size = Files.size(outFile);
+
+        dc.tabInstance().addRow(new String[]{"2", "failed"});
+        dc.tabInstance().appendData(outFile);
+        Assert.assertTrue(Files.size(outFile) > size);
+        String separator = System.lineSeparator();
+        Assert.assertEquals(Files.readString(outFile), "ID;Result" + separator + "1;passed" + separator + "2;failed" + separator);
+
+        // A changed row leads to a full rewrite
+        dc.tabInstance().setValue("Result", "passed", "skipped");
+        dc.tabInstance().addRow(new String[]{"3", "passed"});
+        dc.tabInstance().appendData(outFile);
+        DataContainer result = DataContainer.newContainer(EContainerFormat.CSV);
+        result.tabInstance().setDelimiter(";");
+        result.readData(outFile);
+        Assert.assertEquals(result.tabInstance().getColumn("Result"), List.of("skipped", "failed", "passed"));
+        System.out.println("Success: Rows appended");
+    }
+
+    @Test
+    public void aggregate() {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"Transaction", "Duration"});
+        dc.tabInstance().addRow(new String[]{"Login", "1.5"});
+        dc.tabInstance().addRow(new String[]{"Search", "200"});
+        dc.tabInstance().addRow(new String[]{"Login", "2.5"});
+        dc.tabInstance().addRow(new String[]{"Login", "n/a"});
+        dc.tabInstance().addRow(new String[]{"Search", "-4e2"});
+
+        double[] durations = dc.tabInstance().getColumnAsDoubles("Duration");
+        Assert.assertEquals(durations.length, 5);
+        Assert.assertTrue(Double.isNaN(durations[3]));
+        Assert.assertEquals(dc.tabInstance().getColumnAsLongs("duration", -1), new long[]{-1, 200, -1, -1, -1});
+
+        Map<String, ColumnStats> stats = dc.tabInstance().aggregate("Transaction", "Duration");
+        Assert.assertEquals(stats.keySet(), Set.of("Login", "Search"));
+        Assert.assertEquals(stats.get("Login").getCount(), 2);
+        Assert.assertEquals(stats.get("Login").getMean(), 2.0);
+        Assert.assertEquals(stats.get("Search").getMin(), -400.0);
+        Assert.assertEquals(stats.get("Search").getMax(), 200.0);
+        Assert.assertEquals(dc.tabInstance().getColumnStats("Duration").getSum(), -196.0);
+        System.out.println("Success: Values aggregated " + stats);
+    }
+
+    @Test
+    public void dateColumn() {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"Step", "Timestamp"});
+        dc.tabInstance().addRow(new String[]{"Login", "2024-05-01 08:30:00"});
+        dc.tabInstance().addRow(new String[]{"Search", "2024-05-01 07:59:59"});
+        dc.tabInstance().addRow(new String[]{"Logout", "n/a"});
+        dc.tabInstance().declareColumnType("timestamp", EColumnType.DATE);
+        Assert.assertEquals(dc.tabInstance().getColumnType("Timestamp"), EColumnType.DATE);
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Timestamp", "2024-05-01 08:00:00", EOperator.DATE_AFTER);
+        Assert.assertEquals(dc.tabInstance().getRows(filter).size(), 1);
+        Assert.assertEquals(dc.tabInstance().getRows(filter).get(0)[0], "Login");
+
+        // Appended rows get parsed incrementally, changed rows on the next access
+        dc.tabInstance().addRow(new String[]{"Report", "2024-05-01 08:15:00"});
+        dc.tabInstance().setValue("Step", "Logout", "Logout");
+        Assert.assertEquals(dc.tabInstance().getRowsIndexes(filter), new int[]{0, 3});
+        List<String[]> window = dc.tabInstance().getRowsInRange("Timestamp", "2024-05-01 07:00:00", "2024-05-01 08:15:00");
+        Assert.assertEquals(window.stream().map(row -> row[0]).toList(), List.of("Search", "Report"));
+        Assert.assertEquals(dc.tabInstance().getColumnAsEpochMillis("Timestamp", -1)[2], -1);
+        System.out.println("Success: Date column filtered");
+    }
+
+    @Test
+    public void convertDateColumn() {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"Step", "Date"});
+        dc.tabInstance().addRow(new String[]{"Login", "31.12.2018"});
+        dc.tabInstance().addRow(new String[]{"Search"});
+        dc.tabInstance().addRow(new String[]{"Logout", "01.01.2019"});
+        dc.tabInstance().convertDateColumn("Date", "yyyy-MM-dd", false);
+        Assert.assertEquals(dc.tabInstance().getColumn("Date"), List.of("2018-12-31", "2019-01-01"));
+        System.out.println("Success: Date column converted");
+    }
+
+    @Test
+    public void sort() throws IOException {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"Name", "Score", "Date"});
+        dc.tabInstance().addRow(new String[]{"Emma", "9", "02.01.2024"});
+        dc.tabInstance().addRow(new String[]{"Ben", "10", "2024-01-01"});
+        dc.tabInstance().addRow(new String[]{"Anna", "", "03.01.2024"});
+        dc.tabInstance().addRow(new String[]{"Chris", "10", "2023-12-31"});
+
+        // Numbers get compared by value, empty values are last
+        dc.tabInstance().sort("Score");
+        Assert.assertEquals(dc.tabInstance().getColumn("Name"), List.of("Emma", "Ben", "Chris", "Anna"));
+        dc.tabInstance().sortDescending("Score", "Name");
+        Assert.assertEquals(dc.tabInstance().getColumn("Name"), List.of("Chris", "Ben", "Emma", "Anna"));
+        dc.tabInstance().declareColumnType("Date", EColumnType.DATE);
+        dc.tabInstance().sort("Date");
+        Assert.assertEquals(dc.tabInstance().getColumn("Name"), List.of("Chris", "Ben", "Emma", "Anna"));
+        Assert.assertEquals(dc.tabInstance().topN("Score", 2).stream().map(row -> row[0]).toList(), List.of("Chris", "Ben"));
+
+        // External sort with several runs
+        Path source = Paths.get("tmp/sortSource.csv");
+        Path target = Paths.get("tmp/sortTarget.csv");
+        dc.tabInstance().writeData(source);
+        TabularContainer.sortFile(source, target, ";", 1, false, "name");
+        Assert.assertEquals(Files.readAllLines(target), List.of("Name;Score;Date", "Anna;;03.01.2024", "Ben;10;2024-01-01", "Chris;10;2023-12-31", "Emma;9;02.01.2024"));
+        System.out.println("Success: Rows sorted");
+    }
+
+    @Test
+    public void join() {
+        DataContainer results = DataContainer.newContainer(EContainerFormat.CSV);
+        results.tabInstance().initHeaders(new String[]{"Test", "Requirement", "Result"});
+        results.tabInstance().addRow(new String[]{"T1", "R2", "passed"});
+        results.tabInstance().addRow(new String[]{"T2", "R1", "failed"});
+        results.tabInstance().addRow(new String[]{"T3", "R9", "passed"});
+        DataContainer requirements = DataContainer.newContainer(EContainerFormat.CSV);
+        requirements.tabInstance().initHeaders(new String[]{"Requirement", "Result"});
+        requirements.tabInstance().addRow(new String[]{"R1", "open"});
+        requirements.tabInstance().addRow(new String[]{"R2", "done"});
+
+        TabularContainer inner = results.tabInstance().join(requirements.tabInstance(), EJoinType.INNER, "requirement");
+        Assert.assertEquals(inner.getHeaders(), new String[]{"Test", "Requirement", "Result", "Result_2"});
+        Assert.assertEquals(inner.getRows().size(), 2);
+        Assert.assertEquals(inner.getRow(0), new String[]{"T1", "R2", "passed", "done"});
+        Assert.assertEquals(inner.getRow(1), new String[]{"T2", "R1", "failed", "open"});
+        TabularContainer left = results.tabInstance().join(requirements.tabInstance(), EJoinType.LEFT, "Requirement");
+        Assert.assertEquals(left.getValue(2, "Result_2"), "");
+        // Sorted on both sides, so the rows get merged
+        results.tabInstance().sort("Requirement");
+        TabularContainer anti = results.tabInstance().join(requirements.tabInstance(), EJoinType.ANTI, "Requirement");
+        Assert.assertEquals(anti.getColumn("Test"), List.of("T3"));
+        System.out.println("Success: Containers joined");
+    }
+
+    @Test
+    public void groupBy() {
+        DataContainer results = DataContainer.newContainer(EContainerFormat.CSV);
+        results.tabInstance().initHeaders(new String[]{"Transaction", "Date", "Duration"});
+        results.tabInstance().addRow(new String[]{"Login", "Mon", "2"});
+        results.tabInstance().addRow(new String[]{"Search", "Mon", "5"});
+        results.tabInstance().addRow(new String[]{"Login", "Tue", "4"});
+        results.tabInstance().addRow(new String[]{"Login", "Tue", ""});
+        results.tabInstance().addRow(new String[]{"Search", "Tue", "2.5"});
+
+        TabularContainer summary = results.tabInstance().groupBy(new String[]{"transaction"}, Aggregation.count().as("Runs"),
+                Aggregation.count("Duration"), Aggregation.sum("Duration"), Aggregation.avg("Duration"), Aggregation.min("Duration"),
+                Aggregation.max("Duration"), Aggregation.distinctCount("Date"), Aggregation.percentile("Duration", 50));
+        Assert.assertEquals(summary.getHeaders(), new String[]{"Transaction", "Runs", "count(Duration)", "sum(Duration)", "avg(Duration)",
+                "min(Duration)", "max(Duration)", "distinct_count(Date)", "p50(Duration)"});
+        Assert.assertEquals(summary.getRow(0), new String[]{"Login", "3", "2", "6", "3", "2", "4", "2", "3"});
+        Assert.assertEquals(summary.getRow(1), new String[]{"Search", "2", "2", "7.5", "3.75", "2.5", "5", "2", "3.75"});
+
+        TabularContainer matrix = results.tabInstance().pivot("Date", "Transaction", Aggregation.count());
+        Assert.assertEquals(matrix.getHeaders(), new String[]{"Date", "Login", "Search"});
+        Assert.assertEquals(matrix.getRow(1), new String[]{"Tue", "2", "1"});
+        System.out.println("Success: Rows grouped");
+    }
+
+    @Test
+    public void query() {
+        DataContainer results = DataContainer.newContainer(EContainerFormat.CSV);
+        results.tabInstance().initHeaders(new String[]{"Test", "Result", "Duration"});
+        results.tabInstance().addRow(new String[]{"T1", "failed", "12"});
+        results.tabInstance().addRow(new String[]{"T2", "passed", "3"});
+        results.tabInstance().addRow(new String[]{"T3", "failed", "7"});
+        results.tabInstance().addRow(new String[]{"T4", "failed", "30"});
+        results.tabInstance().addRow(new String[]{"T5", "failed", "9"});
+        Filter failed = new Filter();
+        failed.addFilterRule("Result", "failed", EOperator.EQUALS);
+
+        List<String[]> page = results.tabInstance().query().select("test").where(failed).offset(1).limit(2).toList();
+        Assert.assertEquals(page.stream().map(row -> row[0]).toList(), List.of("T3", "T4"));
+        page = results.tabInstance().query().select("Test", "Duration").where(failed).orderByDescending("Duration").offset(1).limit(2).toList();
+        Assert.assertEquals(page.get(0), new String[]{"T1", "12"});
+        Assert.assertEquals(page.get(1), new String[]{"T5", "9"});
+        TabularContainer fastest = results.tabInstance().query().orderBy("Duration").limit(1).toContainer();
+        Assert.assertEquals(fastest.getHeaders(), new String[]{"Test", "Result", "Duration"});
+        Assert.assertEquals(fastest.getColumn("Test"), List.of("T2"));
+        System.out.println("Success: Rows queried");
+    }
+
+    @Test
+    public void filterExpression() {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"ID", "Name", "Alter", "Land"});
+        for (String line : content.split("\n")) {
+            if (!line.startsWith("ID")) {
+                dc.tabInstance().addRow(line.split(","));
+            }
+        }
+        List<String[]> actual = dc.tabInstance().getRows("land IN ('Schweiz', 'Italien') AND NOT (Alter BETWEEN 30 AND 50) OR Name LIKE 'Gr%'");
+        Assert.assertEquals(actual.stream().map(row -> row[1]).toList(), List.of("Chris", "Greta", "Felix", "'Ivan'"));
+        Assert.assertEquals(dc.tabInstance().getRows("Alter >= 42 AND Land <> 'Schweiz'").size(), 2);
+        Assert.assertEquals(dc.tabInstance().getRows("Name = 'O''Brien' OR ID NOT IN (1, 2, 3)").size(), 7);
+        Assert.assertThrows(IllegalArgumentException.class, () -> dc.tabInstance().getRows("Alter BETWEEN 30"));
+
+        Filter filter = new Filter();
+        filter.addFilterRule("Alter", new String[]{"30", "50"}, EOperator.BETWEEN);
+        filter.addFilterRule("Land", new String[]{"Deutschland", "Spanien"}, EOperator.IN);
+        Assert.assertEquals(dc.tabInstance().getRows(filter).stream().map(row -> row[1]).toList(), List.of("Emma"));
+        System.out.println("Success: Filter expressions evaluated");
+    }
+
+    @Test
+    public void numericFilter() {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
+        dc.tabInstance().initHeaders(new String[]{"Request", "Nanos"});
+        dc.tabInstance().addRow(new String[]{"R1", "9007199254740993"});
+        dc.tabInstance().addRow(new String[]{"R2", "9007199254740992"});
+        dc.tabInstance().addRow(new String[]{"R3", "12.5"});
+        dc.tabInstance().addRow(new String[]{"R4", "null"});
+        dc.tabInstance().addRow(new String[]{"R5", ""});
+        Filter filter = new Filter();
+        filter.addFilterRule("Nanos", "9007199254740992", EOperator.GREATER_THAN);
+        Assert.assertEquals(dc.tabInstance().getColumn("Request", filter), List.of("R1"));
+        filter.clear();
+        filter.addFilterRule("Nanos", "12.25", EOperator.LESS_OR_EQUAL_THAN);
+        Assert.assertTrue(dc.tabInstance().getRows(filter).isEmpty());
+        filter.clear();
+        filter.addFilterRule("Nanos", "12.5", EOperator.GREATER_OR_EQUAL_THAN);
+        Assert.assertEquals(dc.tabInstance().getColumn("Request", filter), List.of("R1", "R2", "R3"));
+        filter.clear();
+        filter.addFilterRule("Nanos", new String[]{"9007199254740993", "9007199254740993"}, EOperator.BETWEEN);
+        Assert.assertEquals(dc.tabInstance().getColumn("Request", filter), List.of("R1"));
+        filter.clear();
+        filter.addFilterRule("Nanos", new String[]{"12", "9007199254740992"}, EOperator.BETWEEN);
+        Assert.assertEquals(dc.tabInstance().getColumn("Request", filter), List.of("R2", "R3"));
+        // Expressions compare integers exactly like the filter rules
+        Assert.assertEquals(dc.tabInstance().getRows("Nanos = 9007199254740993").size(), 1);
+        Assert.assertEquals(dc.tabInstance().getRows("Nanos > 9007199254740992").get(0)[0], "R1");
+        Assert.assertEquals(dc.tabInstance().getRows("Nanos IN (9007199254740992, 12.50)").size(), 2);
+        System.out.println("Success: Numbers compared");
+    }
+
     private DataContainer prepareFile() throws IOException {
         DataContainer dc = DataContainer.newContainer(EContainerFormat.CSV);
         dc.tabInstance().setDelimiter(",");
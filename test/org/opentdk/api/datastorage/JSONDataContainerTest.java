@@ -0,0 +1,35 @@
+package org.opentdk.api.datastorage;
+
+import org.opentdk.api.filter.EOperator;
+import org.opentdk.api.filter.Filter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class JSONDataContainerTest {
+    private static final String content = "{\"title\":\"Groups\",\"groups\":{"
+            + "\"group1\":{\"name\":\"Admins\",\"members\":[\"Emma\",\"Chris\"]},"
+            + "\"group2\":{\"name\":\"Users\",\"members\":[\"Hannah\"]}}}";
+
+    @Test
+    public void getByXPath() throws IOException {
+        Path file = Files.createTempFile("JSONDataContainerTest", ".json");
+        try {
+            Files.writeString(file, content);
+            DataContainer dc = DataContainer.newContainer(file);
+            Assert.assertEquals(List.of(dc.get("title")), List.of("Groups"));
+
+            Filter filter = new Filter();
+            filter.addFilterRule("XPath", "groups;group1", EOperator.EQUALS);
+            Assert.assertEquals(List.of(dc.get("name", filter)), List.of("Admins"));
+            Assert.assertEquals(List.of(dc.get("members", filter)), List.of("Emma", "Chris"));
+            System.out.println("Success: Values found by XPath");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.opentdk.api.dispatcher;
+
+import org.opentdk.api.datastorage.DataContainer;
+import org.opentdk.api.datastorage.EContainerFormat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class DispatchComponentTest {
+
+    private static class ESettings extends MainDispatcher {
+        public final DispatchComponent LANGUAGE = new DispatchComponent(getDataContainer(), "Language", "/AppSettings", "en");
+        public final DispatchComponent TIMEOUT = new DispatchComponent(getDataContainer(), "Timeout", "/AppSettings/Service[@name='{param_1}']", "30");
+        public final TypedComponent<Integer> RETRIES = TypedComponent.ofInt(getDataContainer(), "Retries", "/AppSettings", "3");
+        public final TypedComponent<Duration> INTERVAL = TypedComponent.ofDuration(getDataContainer(), "Interval", "/AppSettings", "PT5S");
+        public final TypedComponent<List<String>> HOSTS = TypedComponent.ofList(getDataContainer(), "Hosts", "/AppSettings", "", Function.identity());
+
+        public ESettings(DataContainer dc) {
+            super(dc, true, "AppSettings");
+        }
+    }
+
+    @Test
+    public void cachedValues() {
+        DataContainer dc = DataContainer.newContainer(EContainerFormat.XML);
+        ESettings settings = new ESettings(dc);
+        settings.build();
+        Assert.assertEquals(settings.LANGUAGE.getValue(), "en");
+        settings.LANGUAGE.setValue("de");
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(settings.LANGUAGE.getValue(), "de");
+        }
+        Assert.assertEquals(settings.LANGUAGE.getCacheMisses(), 2);
+        Assert.assertEquals(settings.LANGUAGE.getCacheHits(), 99);
+
+        settings.TIMEOUT.setValue("billing", "10");
+        Assert.assertEquals(settings.TIMEOUT.getValue("billing"), "10");
+        Assert.assertEquals(settings.TIMEOUT.getValue("shipping"), "30");
+        // Any change of the container invalidates the values of all components
+        settings.TIMEOUT.setValue("billing", "10", "20");
+        Assert.assertEquals(settings.TIMEOUT.getValue("billing"), "20");
+        Assert.assertEquals(settings.LANGUAGE.getValue(), "de");
+        Assert.assertEquals(settings.LANGUAGE.getCacheMisses(), 3);
+        System.out.println("Success: Settings cached");
+    }
+
+    @Test
+    public void hotReload() throws Exception {
+        Path file = Files.createTempDirectory("settings").resolve("settings.xml");
+        Files.writeString(file, "<AppSettings><Language>en</Language></AppSettings>");
+        ESettings settings = new ESettings(DataContainer.newContainer(file));
+        settings.build();
+        Assert.assertEquals(settings.LANGUAGE.getValue(), "en");
+
+        CountDownLatch reloaded = new CountDownLatch(1);
+        AtomicInteger reloads = new AtomicInteger();
+        settings.enableHotReload(Duration.ofMillis(50)).addListener(f -> {
+            reloads.incrementAndGet();
+            reloaded.countDown();
+        });
+        try {
+            Files.writeString(file, "<AppSettings><Language>fr</Language></AppSettings>");
+            Assert.assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(settings.LANGUAGE.getValue(), "fr");
+
+            // The own save of the container does not lead to a reload
+            settings.LANGUAGE.setValue("es");
+            long version = settings.getDataContainer().getVersion();
+            Thread.sleep(500);
+            Assert.assertEquals(settings.getDataContainer().getVersion(), version);
+            Assert.assertEquals(reloads.get(), 1);
+            Assert.assertEquals(settings.LANGUAGE.getValue(), "es");
+        } finally {
+            settings.disableHotReload();
+        }
+        System.out.println("Success: Settings reloaded");
+    }
+
+    @Test
+    public void typedValues() throws Exception {
+        ESettings settings = new ESettings(DataContainer.newContainer(EContainerFormat.XML));
+        settings.build();
+        Assert.assertEquals(settings.RETRIES.get(), 3);
+        Assert.assertEquals(settings.INTERVAL.get(), Duration.ofSeconds(5));
+        Assert.assertEquals(settings.HOSTS.get(), List.of());
+        Assert.assertSame(settings.INTERVAL.get(), settings.INTERVAL.get());
+
+        settings.RETRIES.setValue("5");
+        settings.INTERVAL.setValue("250");
+        settings.HOSTS.setValue("alpha, beta");
+        Assert.assertEquals(settings.RETRIES.get(), 5);
+        Assert.assertEquals(settings.INTERVAL.get(), Duration.ofMillis(250));
+        Assert.assertEquals(settings.HOSTS.get(), List.of("alpha", "beta"));
+        settings.RETRIES.setValue("many");
+        Assert.assertThrows(IllegalArgumentException.class, settings.RETRIES::get);
+        Assert.assertThrows(IllegalArgumentException.class, () -> TypedComponent.ofBoolean(settings.getDataContainer(), "Retries", "/AppSettings", "false"));
+        Assert.assertEquals(settings.getTypedComponents().size(), 3);
+
+        // A reloaded file with an invalid value is rejected
+        Path file = Files.createTempDirectory("settings").resolve("settings.xml");
+        Files.writeString(file, "<AppSettings><Retries>1</Retries></AppSettings>");
+        ESettings fileSettings = new ESettings(DataContainer.newContainer(file));
+        fileSettings.build();
+        SettingsReloader reloader = fileSettings.enableHotReload(Duration.ofHours(1));
+        try {
+            Files.writeString(file, "<AppSettings><Retries>x</Retries></AppSettings>");
+            Assert.assertFalse(reloader.reload());
+            Assert.assertEquals(fileSettings.RETRIES.get(), 1);
+            Files.writeString(file, "<AppSettings><Retries>2</Retries></AppSettings>");
+            Assert.assertTrue(reloader.reload());
+            Assert.assertEquals(fileSettings.RETRIES.get(), 2);
+        } finally {
+            fileSettings.disableHotReload();
+        }
+        System.out.println("Success: Typed settings parsed");
+    }
+
+    @Test
+    public void batchUpdate() throws Exception {
+        Path file = Files.createTempDirectory("settings").resolve("settings.xml");
+        Files.writeString(file, "<AppSettings><Language>en</Language></AppSettings>");
+        ESettings settings = new ESettings(DataContainer.newContainer(file));
+        settings.build();
+        settings.update(batch -> {
+            batch.setValue(settings.LANGUAGE, "de").setValue(settings.RETRIES, "7");
+            for (int i = 0; i < 20; i++) {
+                batch.setValue(settings.TIMEOUT, "service" + i, String.valueOf(i));
+            }
+            // Nothing is saved before the end of the batch
+            Assert.assertFalse(readFile(file).contains("<Language>de</Language>"));
+        });
+        Assert.assertEquals(settings.TIMEOUT.getValue("service19"), "19");
+        String content = readFile(file);
+        Assert.assertTrue(content.contains("<Language>de</Language>"));
+        Assert.assertTrue(content.contains("<Retries>7</Retries>"));
+        Assert.assertFalse(Files.exists(file.resolveSibling("settings.xml.tmp")));
+
+        settings.LANGUAGE.setValue("fr");
+        Assert.assertTrue(readFile(file).contains("<Language>fr</Language>"));
+        System.out.println("Success: Settings saved once");
+    }
+
+    private static String readFile(Path file) {
+        try {
+            return Files.readString(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.opentdk.api.logger;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class LogFactoryTest {
+
+	@Test
+	public void asyncLogging() throws Exception {
+		Path logFile = Files.createTempDirectory("logs").resolve("async.log");
+		Logger logger = LogFactory.buildLogger(logFile, "INFO", true, new LogOptions().async(true).capacity(64));
+		Assert.assertEquals(logger.getHandlers().length, 1);
+		Assert.assertTrue(logger.getHandlers()[0] instanceof AsyncLogHandler);
+		for (int i = 0; i < 1000; i++) {
+			logger.fine("Skipped " + i);
+			logger.warning("Record " + i);
+		}
+		logger.getHandlers()[0].close();
+		List<String> lines = Files.readAllLines(logFile);
+		Assert.assertEquals(lines.size(), 1000);
+		Assert.assertTrue(lines.get(999).endsWith("Record 999"));
+
+		// The writer is blocked by the first record, so the buffer runs full
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<LogRecord> written = new CopyOnWriteArrayList<>();
+		Handler slowTarget = new Handler() {
+			@Override
+			public void publish(LogRecord logRecord) {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				written.add(logRecord);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		AsyncLogHandler handler = new AsyncLogHandler(new LogOptions().capacity(4).overflowPolicy(EOverflowPolicy.DROP_LOWEST_LEVEL), slowTarget);
+		handler.publish(new LogRecord(Level.INFO, "first"));
+		Assert.assertTrue(entered.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < 9; i++) {
+			handler.publish(new LogRecord(Level.INFO, "info " + i));
+		}
+		Assert.assertEquals(handler.getDroppedCount(), 5);
+		release.countDown();
+		handler.flush();
+		// The first record, the report of the dropped records and the records in the buffer
+		Assert.assertEquals(written.size(), 6);
+		Assert.assertEquals(written.get(1).getMessage(), "5 log records dropped because the buffer was full");
+		handler.publish(new LogRecord(Level.SEVERE, "last"));
+		handler.close();
+		Assert.assertEquals(written.size(), 7);
+		Assert.assertEquals(written.get(6).getMessage(), "last");
+		System.out.println("Success: Records logged asynchronously");
+	}
+
+	@Test
+	public void formatter() {
+		LogFormatter formatter = new LogFormatter();
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 5000; i++) {
+			LogRecord logRecord = new LogRecord(i % 2 == 0 ? Level.INFO : Level.SEVERE, i == 10 ? null : "Message " + i);
+			logRecord.setLoggerName("logs/application.log");
+			logRecord.setInstant(Instant.ofEpochMilli(start + i * 7L));
+			String expected = String.format("[%1$tF %1$tT] [%2$s] %3$s: %4$s%n", logRecord.getMillis(), logRecord.getLevel().getName(), logRecord.getLoggerName(), logRecord.getMessage());
+			Assert.assertEquals(formatter.format(logRecord), expected);
+		}
+		System.out.println("Success: Records formatted");
+	}
+
+	@Test
+	public void rotation() throws Exception {
+		Path logFile = Files.createTempDirectory("logs").resolve("rotating.log");
+		LogOptions options = new LogOptions().rotateSize(1000).maxArchives(3);
+		Logger logger = LogFactory.buildLogger(logFile, "INFO", true, options);
+		List<String> errors = new CopyOnWriteArrayList<>();
+		for (Handler handler : logger.getHandlers()) {
+			handler.setErrorManager(new ErrorManager() {
+				@Override
+				public void error(String msg, Exception ex, int code) {
+					errors.add(msg + ": " + ex);
+				}
+			});
+		}
+		for (int i = 0; i < 200; i++) {
+			logger.info("Record " + i);
+		}
+		for (Handler handler : logger.getHandlers()) {
+			handler.close();
+		}
+		Assert.assertEquals(errors, List.of());
+		Assert.assertTrue(Files.size(logFile) <= 1100);
+		List<Path> archives;
+		try (Stream<Path> files = Files.list(logFile.resolveSibling("archive"))) {
+			archives = files.sorted().toList();
+		}
+		Assert.assertEquals(archives.size(), 3);
+		for (Path archive : archives) {
+			Assert.assertTrue(archive.getFileName().toString().startsWith("rotating.log_"));
+			Assert.assertTrue(archive.getFileName().toString().endsWith(".gz"));
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+				String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+				Assert.assertTrue(content.length() >= 1000 && content.contains("Record "));
+			}
+		}
+
+		LogArchiver.cleanupOldArchives(logFile.resolveSibling("archive"), "rotating.log", 10, Files.size(archives.get(2)));
+		try (Stream<Path> files = Files.list(logFile.resolveSibling("archive"))) {
+			Assert.assertEquals(files.count(), 1);
+		}
+		System.out.println("Success: Log file rotated");
+	}
+
+	@Test
+	public void jsonFormat() throws Exception {
+		Path logFile = Files.createTempDirectory("logs").resolve("json.log");
+		Logger logger = LogFactory.buildLogger(logFile, "INFO", true, new LogOptions().format(ELogFormat.JSON));
+		logger.log(Level.WARNING, "Line 1\nLine 2 with \"quotes\", \\ and \u0001", new Object[] {"a", null, 42});
+		logger.log(Level.SEVERE, "Failed", new IllegalStateException("Broken"));
+		for (Handler handler : logger.getHandlers()) {
+			handler.close();
+		}
+		List<String> lines = Files.readAllLines(logFile);
+		Assert.assertEquals(lines.size(), 2);
+
+		JSONObject first = new JSONObject(lines.get(0));
+		Assert.assertTrue(first.getString("timestamp").matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z"));
+		Assert.assertEquals(first.getString("level"), "WARNING");
+		Assert.assertEquals(first.getString("logger"), logFile.toString());
+		Assert.assertEquals(first.getLong("thread"), Thread.currentThread().threadId());
+		Assert.assertEquals(first.getString("message"), "Line 1\nLine 2 with \"quotes\", \\ and \u0001");
+		Assert.assertEquals(first.getJSONArray("parameters").toList(), Arrays.asList("a", null, "42"));
+		Assert.assertFalse(first.has("exception"));
+
+		JSONObject second = new JSONObject(lines.get(1));
+		Assert.assertTrue(second.getString("exception").startsWith("java.lang.IllegalStateException: Broken"));
+		Assert.assertFalse(second.has("parameters"));
+		System.out.println("Success: Records logged as JSON");
+	}
+}
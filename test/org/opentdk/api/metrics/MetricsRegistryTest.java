@@ -0,0 +1,71 @@
+package org.opentdk.api.metrics;
+
+import org.json.JSONArray;
+import org.opentdk.api.datastorage.TabularContainer;
+import org.opentdk.api.util.CSVUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class MetricsRegistryTest {
+
+	@Test
+	public void histogram() {
+		for (long value = 0; value < 1L << 50; value = value * 3 + 1) {
+			int index = LatencyHistogram.bucketIndex(value);
+			Assert.assertTrue(value <= LatencyHistogram.bucketUpperBound(index) || index == LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+			Assert.assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+		}
+		LatencyHistogram histogram = new MetricsRegistry().histogram("latency");
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		Assert.assertEquals(histogram.getCount(), 1000);
+		Assert.assertEquals(histogram.getMean(), 500500.0, 0.001);
+		Assert.assertEquals(histogram.getMax(), 1000000);
+		long[] percentiles = histogram.getPercentiles(50, 99, 100);
+		Assert.assertTrue(percentiles[0] >= 500000 && percentiles[0] <= 500000 * 1.04, String.valueOf(percentiles[0]));
+		Assert.assertTrue(percentiles[1] >= 990000 && percentiles[1] <= 1000000, String.valueOf(percentiles[1]));
+		Assert.assertEquals(percentiles[2], 1000000);
+	}
+
+	@Test
+	public void snapshot() throws Exception {
+		MetricsRegistry registry = new MetricsRegistry();
+		Counter rows = registry.counter("rows");
+		Assert.assertSame(registry.counter("rows"), rows);
+		Assert.assertThrows(IllegalArgumentException.class, () -> registry.histogram("rows"));
+		Assert.assertThrows(IllegalArgumentException.class, () -> registry.gauge("rows", () -> 1));
+		rows.add(42);
+		registry.histogram("save").record(2000);
+		registry.gauge("heap", () -> 7);
+
+		MetricsReporter reporter = new MetricsReporter(registry);
+		TabularContainer snapshot = reporter.snapshot();
+		Assert.assertEquals(snapshot.getRows().size(), 3);
+		Assert.assertEquals(snapshot.getRows().get(0)[4], "7.0");
+		Assert.assertEquals(snapshot.getRows().get(1)[2], "42");
+		Assert.assertEquals(snapshot.getRows().get(2)[9], "2000");
+		Assert.assertEquals(reporter.snapshot().getRows().get(1)[3], "0.0");
+
+		Path dir = Files.createTempDirectory("metrics");
+		reporter.write(dir.resolve("metrics.csv"));
+		List<String[]> csv = CSVUtil.readFile(dir.resolve("metrics.csv").toFile(), ";", StandardCharsets.UTF_8);
+		Assert.assertEquals(csv.get(0), MetricsReporter.HEADERS);
+		Assert.assertEquals(csv.get(2)[0], "rows");
+		reporter.write(dir.resolve("metrics.json"));
+		JSONArray json = new JSONArray(Files.readString(dir.resolve("metrics.json")));
+		Assert.assertEquals(json.getJSONObject(1).getLong("count"), 42);
+
+		// Instrumented classes record into the default registry
+		long before = MetricsRegistry.getDefault().counter("csv.rows.read").getCount();
+		CSVUtil.readRows(new BufferedReader(new StringReader("a;b\n1;2\n")), ";");
+		Assert.assertEquals(MetricsRegistry.getDefault().counter("csv.rows.read").getCount(), before + 2);
+	}
+}
@@ -102,6 +102,32 @@ public class DateUtilTest {
         Assert.assertEquals(DateUtil.getLastOf("2021-04-04", ChronoField.NANO_OF_DAY, "yyyy-MM-dd-HH.mm.ss.SSSSSS"), "2021-04-04-23.59.59.999999");
     }
 
+    @Test
+    public void retrieveTemporal() {
+        // Same shape, but the values only fit to different formats
+        Assert.assertEquals(DateUtil.get("991231", "yyyy-MM-dd"), "2099-12-31");
+        Assert.assertEquals(DateUtil.get("235959", "HH:mm:ss"), "23:59:59");
+        Assert.assertEquals(DateUtil.get("991230", "yyyy-MM-dd"), "2099-12-30");
+        Assert.assertFalse(DateUtil.isTemporal("2024_01_15"));
+        // The formats are global, so the added pattern gets removed again for the other tests
+        DateUtil.addPattern("yyyy_MM_dd");
+        try {
+            Assert.assertTrue(DateUtil.isTemporal("2024_01_15"));
+            Assert.assertEquals(DateUtil.get("2024_01_15", "dd.MM.yyyy"), "15.01.2024");
+            Assert.assertThrows(UnsupportedOperationException.class, () -> DateUtil.getAllFormats().remove("yyyy_MM_dd"));
+        } finally {
+            Assert.assertTrue(DateUtil.removePattern("yyyy_MM_dd"));
+        }
+        Assert.assertFalse(DateUtil.isTemporal("2024_01_15"));
+    }
+
+    @Test
+    public void convertAll() {
+        List<String> dates = List.of("31.12.2018", "01.01.2019", "", "2020-11-02", "no date");
+        Assert.assertEquals(DateUtil.convertAll(dates, "yyyyMMdd"), List.of("20181231", "20190101", "", "20201102", ""));
+        Assert.assertEquals(DateUtil.convertAll(dates, "dd.MM.yyyy", "yyyy-MM-dd", true), List.of("2018-12-31", "2019-01-01", "", "", ""));
+    }
+
     @Test
     public void getMillis() {
         Assert.assertEquals(13, DateUtil.getLengthMilliseconds());